@@ -0,0 +1,71 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * 将各地址的连接结果反馈给 {@link HttpCachingDnsResolver}，用于剔除及恢复连接失败的地址
+ *
+ * @author chenck
+ * @date 2026/10/18 19:30
+ */
+class HttpAddressTrackingSocketFactory implements ConnectionSocketFactory {
+
+    private final ConnectionSocketFactory delegate;
+    private final HttpCachingDnsResolver dnsResolver;
+
+    private HttpAddressTrackingSocketFactory(ConnectionSocketFactory delegate, HttpCachingDnsResolver dnsResolver) {
+        this.delegate = delegate;
+        this.dnsResolver = dnsResolver;
+    }
+
+    /**
+     * 包装连接工厂，https连接工厂包装后仍为 {@link LayeredConnectionSocketFactory}
+     */
+    static ConnectionSocketFactory wrap(ConnectionSocketFactory delegate, HttpCachingDnsResolver dnsResolver) {
+        if (delegate instanceof LayeredConnectionSocketFactory) {
+            return new Layered((LayeredConnectionSocketFactory) delegate, dnsResolver);
+        }
+        return new HttpAddressTrackingSocketFactory(delegate, dnsResolver);
+    }
+
+    @Override
+    public Socket createSocket(HttpContext context) throws IOException {
+        return delegate.createSocket(context);
+    }
+
+    @Override
+    public Socket connectSocket(int connectTimeout, Socket sock, HttpHost host, InetSocketAddress remoteAddress,
+                                InetSocketAddress localAddress, HttpContext context) throws IOException {
+        Socket socket;
+        try {
+            socket = delegate.connectSocket(connectTimeout, sock, host, remoteAddress, localAddress, context);
+        } catch (IOException e) {
+            dnsResolver.markFailure(host.getHostName(), remoteAddress.getAddress());
+            throw e;
+        }
+        dnsResolver.markSuccess(host.getHostName(), remoteAddress.getAddress());
+        return socket;
+    }
+
+    private static final class Layered extends HttpAddressTrackingSocketFactory implements LayeredConnectionSocketFactory {
+
+        private final LayeredConnectionSocketFactory layeredDelegate;
+
+        Layered(LayeredConnectionSocketFactory delegate, HttpCachingDnsResolver dnsResolver) {
+            super(delegate, dnsResolver);
+            this.layeredDelegate = delegate;
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+            return layeredDelegate.createLayeredSocket(socket, target, port, context);
+        }
+    }
+}
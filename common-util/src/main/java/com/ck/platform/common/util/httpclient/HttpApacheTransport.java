@@ -0,0 +1,99 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.Header;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 基于Apache HttpClient 4.x的传输层（默认）<br>
+ * 注：Cookie、认证信息通过每个请求独立的HttpClientContext传递，同一连接池可安全地并发处理不同会话的请求
+ *
+ * @author chenck
+ * @date 2026/10/18 23:50
+ */
+class HttpApacheTransport implements HttpTransport {
+
+    private final CloseableHttpClient httpClient;
+
+    HttpApacheTransport(CloseableHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public String getName() {
+        return APACHE;
+    }
+
+    @Override
+    public <T> T execute(HttpClientParam reqParam, RequestConfig reqConfig, ResponseHandler<T> responseHandler) throws IOException {
+        // 所有请求会使用一个公共的连接池，响应处理完成后会自动关闭inputsream并释放连接，不需要再用代码去关闭。
+        // 注：此处以流的方式处理响应（如直接写入文件），不将响应内容全部读入内存
+        HttpUriRequest request = buildRequest(reqParam, reqConfig).build();
+        // 对冲请求中另一个请求先返回时，中止本请求并释放连接
+        HttpHedging.registerAbort(() -> {
+            request.abort();
+            return true;
+        });
+        return httpClient.execute(request, responseHandler, createContext(reqParam));
+    }
+
+    /**
+     * 根据请求参数构建请求（同步及异步请求共用）
+     *
+     * @param reqParam  请求参数
+     * @param reqConfig 请求配置（超时、代理）
+     */
+    static RequestBuilder buildRequest(HttpClientParam reqParam, RequestConfig reqConfig) {
+        // get request by http method
+        RequestBuilder requestBuilder = RequestBuilder.create(reqParam.getMethod())
+                .setUri(reqParam.getRequesturi().trim())
+                .setConfig(reqConfig);
+        // only post set request body
+        if (reqParam.getMethod().equals(HttpMethod.POST.name()) && null != reqParam.getEntity()) {
+            requestBuilder.setEntity(reqParam.getEntity());
+        }
+
+        // set request headers
+        List<Header> headers = reqParam.getHeaders();
+        if (null != headers && headers.size() > 0) {
+            for (Header header : headers) {
+                requestBuilder.addHeader(header);
+            }
+        }
+        return requestBuilder;
+    }
+
+    /**
+     * 创建请求独立的上下文，携带请求的cookieStore、credentialsProvider及authCache（同步及异步请求共用）<br>
+     * 注：未设置cookieStore时使用空的cookieStore，避免响应的Cookie写入HttpClient共享的cookieStore后被其他请求携带<br>
+     * 注：设置了cookieStore、credentialsProvider或authCache的请求绕过响应缓存，见 {@link HttpCachingClientBuilder}
+     *
+     * @param reqParam 请求参数
+     */
+    static HttpClientContext createContext(HttpClientParam reqParam) {
+        HttpClientContext context = HttpClientContext.create();
+        if (null != reqParam.getCookieStore() || null != reqParam.getCredentialsProvider() || null != reqParam.getAuthCache()) {
+            context.setAttribute(HttpCachingClientBuilder.BYPASS_CACHE, Boolean.TRUE);
+        }
+        if (null != reqParam.getRetryPolicy()) {
+            // 按请求设置了重试策略时，连接层不再立即重试，见 HttpRetryHandler
+            context.setAttribute(HttpRetryHandler.RETRY_POLICY_APPLIED, Boolean.TRUE);
+        }
+        context.setCookieStore(null != reqParam.getCookieStore() ? reqParam.getCookieStore() : new BasicCookieStore());
+        if (null != reqParam.getCredentialsProvider()) {
+            context.setCredentialsProvider(reqParam.getCredentialsProvider());
+        }
+        if (null != reqParam.getAuthCache()) {
+            context.setAuthCache(reqParam.getAuthCache());
+        }
+        return context;
+    }
+}
@@ -2,9 +2,6 @@ package com.ck.platform.common.util.httpclient;
 
 import com.ck.platform.common.util.httpclient.annotation.HttpApiAnno;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  * HttpApiAnno标注类的容器工具类
  *
@@ -14,14 +11,14 @@ import java.util.concurrent.ConcurrentHashMap;
 public class HttpApiAnnoContainerUtil {
 
     /**
-     * input对应的注解缓存
-     */
-    private static final Map<String, HttpApiAnno> INPUT_ANNOTATIONS = new ConcurrentHashMap<String, HttpApiAnno>();
-
-    /**
-     * 锁, 防止重复连接同一配置
+     * input对应的注解缓存（基于ClassValue，查找无锁，且不会阻止input类被卸载）
      */
-    private static final Object lock = new Object();
+    private static final ClassValue<HttpApiAnno> INPUT_ANNOTATIONS = new ClassValue<HttpApiAnno>() {
+        @Override
+        protected HttpApiAnno computeValue(Class<?> type) {
+            return type.getAnnotation(HttpApiAnno.class);
+        }
+    };
 
     /**
      * 获取输入参数对象上的HttpApiAnno注解配置
@@ -29,20 +26,6 @@ public class HttpApiAnnoContainerUtil {
      * @param clazz
      */
     public static HttpApiAnno getHttpApiAnno(Class<?> clazz) {
-        HttpApiAnno anno = INPUT_ANNOTATIONS.get(clazz.getName());
-        if (null != anno) {
-            return anno;
-        }
-        synchronized (lock) {
-            anno = INPUT_ANNOTATIONS.get(clazz.getName());
-            if (null != anno) {
-                return anno;
-            }
-            anno = clazz.getAnnotation(HttpApiAnno.class);
-            if (null != anno) {
-                INPUT_ANNOTATIONS.put(clazz.getName(), anno);
-            }
-            return anno;
-        }
+        return INPUT_ANNOTATIONS.get(clazz);
     }
 }
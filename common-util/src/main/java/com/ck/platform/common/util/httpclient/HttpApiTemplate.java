@@ -0,0 +1,208 @@
+package com.ck.platform.common.util.httpclient;
+
+import com.ck.platform.common.util.httpclient.annotation.HttpApiAnno;
+import com.ck.platform.common.util.httpclient.dto.HttpApiInput;
+import com.ck.platform.common.util.httpclient.dto.HttpParamApiInput;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.entity.ContentType;
+
+import java.nio.charset.Charset;
+
+/**
+ * 请求模板<br>
+ * 由入参类上的 {@link HttpApiAnno} 注解配置预编译而成（url、请求方式、编码、超时、url参数构建模式、请求体构建方式），
+ * 每个入参类只编译一次，调用时只需将入参的字段值绑定到模板上<br>
+ * 注：模板不可变，可被多线程共享
+ *
+ * @author chenck
+ * @date 2026/10/18 22:00
+ */
+public final class HttpApiTemplate {
+
+    /**
+     * 请求体构建方式
+     */
+    enum BodyMode {
+        /**
+         * 非POST请求，无请求体
+         */
+        NONE,
+        /**
+         * paramStr字段，表单形式提交
+         */
+        PARAM_STR_FORM,
+        /**
+         * paramStr字段，流的形式提交
+         */
+        PARAM_STR_STREAM,
+        /**
+         * 对象本身或paramMap字段，表单形式提交
+         */
+        FORM,
+        /**
+         * 对象本身或paramMap字段，转换为xml格式以流的形式提交
+         */
+        XML,
+        /**
+         * 对象本身或paramMap字段，转换为k=v&k=v格式以流的形式提交
+         */
+        KV,
+        /**
+         * 对象本身或paramMap字段，转换为json格式以流的形式提交
+         */
+        JSON
+    }
+
+    /**
+     * 入参类对应的请求模板（基于ClassValue，查找无锁，且不会阻止入参类被卸载），未标注HttpApiAnno的类为null
+     */
+    private static final ClassValue<HttpApiTemplate> TEMPLATES = new ClassValue<HttpApiTemplate>() {
+        @Override
+        protected HttpApiTemplate computeValue(Class<?> type) {
+            HttpApiAnno anno = HttpApiAnnoContainerUtil.getHttpApiAnno(type);
+            return null == anno ? null : new HttpApiTemplate(anno);
+        }
+    };
+
+    private final HttpApiAnno anno;
+    private final String apiName;
+    private final String url;
+    private final String path;
+    private final HttpMethod method;
+    private final String charsetName;
+    private final Charset charset;
+    private final boolean urlParamFormatMode;
+    private final boolean dataFromMap;
+    private final BodyMode bodyMode;
+    private final ContentType contentType;
+    private final RequestConfig requestConfig;
+
+    private HttpApiTemplate(HttpApiAnno anno) {
+        this.anno = anno;
+        this.apiName = StringUtils.isNotBlank(anno.name()) ? anno.name() : null;
+        this.url = anno.url();
+        this.path = anno.path();
+        this.method = anno.method();
+        this.charsetName = anno.charset();
+        this.charset = Charset.forName(anno.charset());
+        this.urlParamFormatMode = HttpApiAnno.URL_PARAM_FORMAT_MODE.equals(anno.urlParamBuildMode());
+        this.dataFromMap = HttpApiAnno.DATA_FROM_FIELD_MAP.equals(anno.dataFrom());
+        this.bodyMode = resolveBodyMode(anno);
+        this.contentType = resolveContentType(anno.postDataFormat(), charset);
+        this.requestConfig = RequestConfig.custom()
+                .setConnectTimeout(anno.connectTimeOut())
+                .setSocketTimeout(anno.readTimeOut())
+                .build();
+    }
+
+    /**
+     * 获取入参类对应的请求模板
+     *
+     * @param clazz 入参类
+     * @return 未标注HttpApiAnno时返回null
+     */
+    public static HttpApiTemplate of(Class<?> clazz) {
+        return TEMPLATES.get(clazz);
+    }
+
+    /**
+     * 生成请求地址：优先使用入参中的url，再拼接注解上的path，最后按url参数构建模式拼接url参数
+     */
+    public String buildUrl(HttpApiInput<?> input) {
+        String requestUrl = (StringUtils.isNotBlank(input.getUrl()) ? input.getUrl() : url) + path;
+        if (input instanceof HttpParamApiInput) {
+            HttpParamApiInput<?> paramInput = (HttpParamApiInput<?>) input;
+            if (urlParamFormatMode) {
+                if (!paramInput.getUrlParamList().isEmpty()) {
+                    requestUrl = HttpUrlTemplate.compile(requestUrl).render(paramInput.getUrlParamList(), charset);
+                }
+            } else {
+                requestUrl = HttpLibs.buildRequestURL(paramInput.getUrlParamMap(), requestUrl);
+            }
+        }
+        return requestUrl;
+    }
+
+    /**
+     * 生成请求配置（超时、代理），未设置代理时直接返回预编译的请求配置
+     */
+    public RequestConfig buildRequestConfig(HttpApiInput<?> input) {
+        if (StringUtils.isNotBlank(input.getProxyHost()) && input.getProxyPort() > 0) {
+            return RequestConfig.copy(requestConfig)
+                    .setProxy(new HttpHost(input.getProxyHost(), input.getProxyPort()))
+                    .build();
+        }
+        return requestConfig;
+    }
+
+    private static BodyMode resolveBodyMode(HttpApiAnno anno) {
+        if (HttpMethod.POST != anno.method()) {
+            return BodyMode.NONE;
+        }
+        boolean form = HttpApiAnno.POST_DATA_MODE_FORM.equals(anno.postDataMode());
+        if (HttpApiAnno.DATA_FROM_FIELD_PARAM_STR.equals(anno.dataFrom())) {
+            return form ? BodyMode.PARAM_STR_FORM : BodyMode.PARAM_STR_STREAM;
+        }
+        if (form) {
+            return BodyMode.FORM;
+        }
+        if (HttpApiAnno.DATA_FORMAT_XML.equals(anno.postDataFormat())) {
+            return BodyMode.XML;
+        }
+        if (HttpApiAnno.DATA_FORMAT_KV.equals(anno.postDataFormat())) {
+            return BodyMode.KV;
+        }
+        return BodyMode.JSON;
+    }
+
+    /**
+     * 数据格式对应的ContentType
+     */
+    private static ContentType resolveContentType(String postDataFormat, Charset charset) {
+        if (HttpApiAnno.DATA_FORMAT_XML.equals(postDataFormat)) {
+            return ContentType.create(ContentType.APPLICATION_XML.getMimeType(), charset);
+        }
+        if (HttpApiAnno.DATA_FORMAT_KV.equals(postDataFormat)) {
+            return ContentType.create(ContentType.APPLICATION_FORM_URLENCODED.getMimeType(), charset);
+        }
+        return ContentType.create(ContentType.APPLICATION_JSON.getMimeType(), charset);
+    }
+
+    public HttpApiAnno getAnno() {
+        return anno;
+    }
+
+    public String getApiName() {
+        return apiName;
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    public String getCharsetName() {
+        return charsetName;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public boolean isDataFromMap() {
+        return dataFromMap;
+    }
+
+    BodyMode getBodyMode() {
+        return bodyMode;
+    }
+
+    public ContentType getContentType() {
+        return contentType;
+    }
+
+    public RequestConfig getRequestConfig() {
+        return requestConfig;
+    }
+}
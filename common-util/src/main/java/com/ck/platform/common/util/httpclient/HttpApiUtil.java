@@ -0,0 +1,127 @@
+package com.ck.platform.common.util.httpclient;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.ck.platform.common.util.httpclient.annotation.HttpApiAnno;
+import com.ck.platform.common.util.httpclient.dto.HttpApiInput;
+import com.ck.platform.common.util.httpclient.dto.HttpApiResult;
+import com.ck.platform.common.util.httpclient.dto.HttpParamApiInput;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.Args;
+
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于 {@link HttpApiAnno} 注解的api调用工具类<br>
+ * 根据入参对象上的注解配置构建请求（url、请求方式、编码、超时、数据来源、数据提交方式及格式），注解配置按入参类预编译为请求模板（{@link HttpApiTemplate}），
+ * 并将响应内容以流的方式直接反序列化为入参对象泛型中声明的结果类型（HttpApiInput.resultClazz）
+ *
+ * @author chenck
+ * @date 2026/10/18 16:02
+ */
+public class HttpApiUtil {
+
+    private HttpApiUtil() {
+    }
+
+    /**
+     * 执行api调用<br>
+     * 1.请求成功时，HttpResultDto.bizDataObj为resultClazz类型的对象（未声明泛型时为响应字符串）<br>
+     * 2.入参为HttpParamApiInput且设置了outFilePath时，响应内容输出到文件，HttpResultDto.bizDataObj为文件路径<br>
+     *
+     * @param input 入参，类上需标注 {@link HttpApiAnno}
+     * @return
+     */
+    public static <T extends HttpApiResult> HttpResultDto invoke(HttpApiInput<T> input) {
+        Args.notNull(input, "HttpApiInput");
+        HttpApiTemplate template = HttpApiTemplate.of(input.getClass());
+        if (null == template) {
+            throw new IllegalArgumentException(input.getClass().getName() + " should be annotated with @HttpApiAnno");
+        }
+
+        HttpClientParam reqParam = HttpApiUtil.buildHttpClientParam(input, template);
+        RequestConfig reqConfig = template.buildRequestConfig(input);
+
+        if (StringUtils.isNotBlank(reqParam.getOutFilePath()) || null == input.getResultClazz()) {
+            return HttpClientUtil.invoke(reqParam, reqConfig);
+        }
+        return HttpClientUtil.invoke(reqParam, reqConfig, new HttpObjectDecoder<T>(input.getResultClazz()));
+    }
+
+    /**
+     * 将入参绑定到请求模板，生成请求参数
+     */
+    private static HttpClientParam buildHttpClientParam(HttpApiInput<?> input, HttpApiTemplate template) {
+        HttpParamApiInput<?> paramInput = input instanceof HttpParamApiInput ? (HttpParamApiInput<?>) input : null;
+
+        HttpClientParam reqParam = HttpClientParam.of(template.buildUrl(input))
+                .setMethod(template.getMethod().name())
+                .setCharset(template.getCharsetName())
+                .setApiName(template.getApiName());
+        if (null != paramInput) {
+            reqParam.setOutFilePath(paramInput.getOutFilePath());
+        }
+        if (HttpApiTemplate.BodyMode.NONE != template.getBodyMode()) {
+            reqParam.setEntity(HttpApiUtil.buildEntity(input, paramInput, template));
+        }
+        return reqParam;
+    }
+
+    /**
+     * 根据请求模板的请求体构建方式构建请求体
+     */
+    private static HttpEntity buildEntity(HttpApiInput<?> input, HttpParamApiInput<?> paramInput, HttpApiTemplate template) {
+        Charset charset = template.getCharset();
+        String body;
+        switch (template.getBodyMode()) {
+            case PARAM_STR_FORM:
+            case PARAM_STR_STREAM:
+                // 外部自行组装的请求参数字符串
+                String paramStr = null != paramInput ? paramInput.getParamStr() : null;
+                if (null == paramStr) {
+                    return null;
+                }
+                if (HttpApiTemplate.BodyMode.PARAM_STR_FORM == template.getBodyMode()) {
+                    return new UrlEncodedFormEntity(HttpLibs.getParamsList(paramStr), charset);
+                }
+                return new StringEntity(paramStr, template.getContentType());
+            case FORM:
+                List<NameValuePair> params = HttpLibs.getParamsList(HttpApiUtil.getParamMap(input, paramInput, template));
+                return null == params ? null : new UrlEncodedFormEntity(params, charset);
+            case XML:
+                // 发送时才序列化，大报文边序列化边发送
+                return HttpSerializingEntity.xml(HttpApiUtil.getParamMap(input, paramInput, template), template.getContentType());
+            case KV:
+                body = HttpLibs.buildParamsLink(HttpApiUtil.getParamMap(input, paramInput, template));
+                break;
+            case JSON:
+                // 发送时才序列化，大报文边序列化边发送
+                return HttpSerializingEntity.json(template.isDataFromMap() && null != paramInput ? paramInput.getParamMap() : input,
+                        template.getContentType());
+            default:
+                return null;
+        }
+        if (null == body) {
+            return null;
+        }
+        return new StringEntity(body, template.getContentType());
+    }
+
+    /**
+     * 获取数据来源对应的参数Map
+     */
+    private static Map<String, Object> getParamMap(HttpApiInput<?> input, HttpParamApiInput<?> paramInput, HttpApiTemplate template) {
+        if (template.isDataFromMap() && null != paramInput) {
+            return paramInput.getParamMap();
+        }
+        // 对象本身，按fastjson的序列化规则转换（忽略@JSONField(serialize = false)标注的字段）
+        return (JSONObject) JSON.toJSON(input);
+    }
+}
@@ -0,0 +1,193 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.ssl.SSLInitializationException;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HttpAsyncClient 连接池提供者（基于NIO事件循环，请求等待响应期间不占用调用线程）
+ * <p>
+ * 注：与 {@link HttpClientExecutorProvider} 相互独立，同一poolName下的同步连接池与异步连接池分别维护；
+ * 同步连接池运行时调整的maxConnTotal、maxConnPerRoute、maxConnPerHost同时应用到同名的异步连接池
+ *
+ * @author chenck
+ * @date 2026/10/18 10:12
+ */
+public class HttpAsyncClientProvider {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(HttpAsyncClientProvider.class);
+
+    // 同一配置, 始终保持同一个异步客户端
+    private static final ConcurrentHashMap<String, CloseableHttpAsyncClient> ASYNC_CLIENT_MAP = new ConcurrentHashMap<String, CloseableHttpAsyncClient>();
+    // 异步客户端对应的连接池，用于运行时调整连接池大小
+    private static final ConcurrentHashMap<String, PoolingNHttpClientConnectionManager> CONN_MGR_MAP = new ConcurrentHashMap<String, PoolingNHttpClientConnectionManager>();
+    // 锁, 防止重复创建同一配置
+    private static final Object LOCK = new Object();
+
+    /**
+     * 获取HttpAsyncClient实例（已启动）
+     *
+     * @param reqParam
+     * @param reqConfig
+     * @return
+     */
+    public static CloseableHttpAsyncClient getInstance(HttpClientParam reqParam, RequestConfig reqConfig) {
+        if (null == reqParam) {
+            throw new IllegalArgumentException("HttpClientParam should not be null");
+        }
+        if (null == reqConfig) {
+            throw new IllegalArgumentException("RequestConfig should not be null");
+        }
+        // 针对不同的PoolName实例化不同的HttpAsyncClient
+        String cachedKey = reqParam.getPoolName();
+
+        CloseableHttpAsyncClient client = ASYNC_CLIENT_MAP.get(cachedKey);
+        if (null == client) {
+            synchronized (LOCK) {
+                client = ASYNC_CLIENT_MAP.get(cachedKey);
+                if (null != client) {
+                    return client;
+                }
+                client = createHttpAsyncClient(reqParam, reqConfig);
+                client.start();
+                ASYNC_CLIENT_MAP.putIfAbsent(cachedKey, client);
+            }
+        }
+        return client;
+    }
+
+    /**
+     * 运行时调整异步连接池大小（异步连接池未创建时忽略，创建时读取同步连接池的配置）
+     *
+     * @param poolName        连接池名称
+     * @param maxConnTotal    最大并发连接数
+     * @param maxConnPerRoute 单路由的最大并发连接数
+     */
+    static void resize(String poolName, int maxConnTotal, int maxConnPerRoute) {
+        synchronized (LOCK) {
+            PoolingNHttpClientConnectionManager connMgr = CONN_MGR_MAP.get(poolName);
+            if (null != connMgr) {
+                connMgr.setMaxTotal(maxConnTotal);
+                connMgr.setDefaultMaxPerRoute(maxConnPerRoute);
+            }
+        }
+    }
+
+    /**
+     * 运行时调整异步连接池指定路由的最大并发连接数（异步连接池未创建时忽略）
+     *
+     * @param poolName        连接池名称
+     * @param route           路由
+     * @param maxConnPerRoute 最大并发连接数
+     */
+    static void setMaxPerRoute(String poolName, HttpRoute route, int maxConnPerRoute) {
+        synchronized (LOCK) {
+            PoolingNHttpClientConnectionManager connMgr = CONN_MGR_MAP.get(poolName);
+            if (null != connMgr) {
+                connMgr.setMaxPerRoute(route, maxConnPerRoute);
+            }
+        }
+    }
+
+    /**
+     * 创建异步连接池
+     *
+     * @param reqParam
+     * @return
+     */
+    private static PoolingNHttpClientConnectionManager createPool(HttpClientParam reqParam) throws IOReactorException {
+        SchemeIOSessionStrategy ssl;
+        try {
+            ssl = SSLIOSessionStrategy.getSystemDefaultStrategy();
+        } catch (final SSLInitializationException ex) {
+            ssl = SSLIOSessionStrategy.getDefaultStrategy();
+        }
+        final Registry<SchemeIOSessionStrategy> sessionStrategyRegistry = RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", ssl)
+                .build();
+
+        // I/O分发线程数与CPU核数一致，所有连接的读写事件均由这几个线程处理
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(Runtime.getRuntime().availableProcessors())
+                .build();
+        DefaultConnectingIOReactor ioReactor = new DefaultConnectingIOReactor(ioReactorConfig,
+                new DaemonThreadFactory(reqParam.getPoolName() + "_async-io-"));
+
+        PoolingNHttpClientConnectionManager connMgr = new PoolingNHttpClientConnectionManager(ioReactor, sessionStrategyRegistry);
+        // 同名的同步连接池已显式声明时，以声明的连接池大小为准
+        HttpClientPoolConfig poolConfig = HttpClientExecutorProvider.getPoolConfig(reqParam.getPoolName());
+        connMgr.setDefaultMaxPerRoute(null != poolConfig ? poolConfig.getMaxConnPerRoute() : reqParam.getMaxConnPerRoute());// 单路由的最大并发连接数
+        connMgr.setMaxTotal(null != poolConfig ? poolConfig.getMaxConnTotal() : reqParam.getMaxConnTotal());// 最大连接数
+        // 指定主机的单路由最大并发连接数
+        if (null != poolConfig && null != poolConfig.getMaxConnPerHost()) {
+            for (Map.Entry<String, Integer> entry : poolConfig.getMaxConnPerHost().entrySet()) {
+                connMgr.setMaxPerRoute(HttpClientExecutorProvider.toRoute(entry.getKey()), entry.getValue());
+            }
+        }
+        CONN_MGR_MAP.put(reqParam.getPoolName(), connMgr);
+        return connMgr;
+    }
+
+    /**
+     * 创建HttpAsyncClient
+     *
+     * @param reqParam
+     * @param reqConfig
+     * @return
+     */
+    private static CloseableHttpAsyncClient createHttpAsyncClient(HttpClientParam reqParam, RequestConfig reqConfig) {
+        final PoolingNHttpClientConnectionManager connMgr;
+        try {
+            connMgr = createPool(reqParam);
+        } catch (IOReactorException e) {
+            throw new IllegalStateException("create async http client pool error, poolName=" + reqParam.getPoolName(), e);
+        }
+
+        HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+                .setDefaultRequestConfig(reqConfig)
+                .setConnectionManager(connMgr)
+                .setThreadFactory(new DaemonThreadFactory(reqParam.getPoolName() + "_async-reactor-"));
+
+        // 与同步连接池保持一致，支持从系统环境变量中获取代理配置
+        builder.useSystemProperties();
+        builder.setKeepAliveStrategy(HttpClientExecutorProvider.createKeepAliveStrategy(reqParam.getConnKeepAliveTime()));
+
+        // 定期清除过期和闲置的的连接（第一次延迟3秒执行，每10秒执行一次）
+        final int connKeepAliveTime = reqParam.getConnKeepAliveTime();
+        ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory(reqParam.getPoolName() + "_async-conn-monitor"));
+        scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    connMgr.closeExpiredConnections();
+                    connMgr.closeIdleConnections(connKeepAliveTime, TimeUnit.MILLISECONDS);
+                } catch (Exception e) {
+                    LOGGER.error("httpasyncclient pool release error", e);
+                }
+            }
+        }, 3000, 10 * 1000, TimeUnit.MILLISECONDS);
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.ck.platform.common.util.httpclient;
+
+import com.ck.platform.common.util.pool.MdcUtil;
+import org.apache.http.HttpResponse;
+import org.apache.http.concurrent.FutureCallback;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步请求回调，将响应转换为 {@link HttpResultDto} 并完成对应的 {@link CompletableFuture}
+ * <p>
+ * 注：回调由I/O分发线程触发，响应处理（解码、输出文件、日志）及完成CompletableFuture均转交回调线程池执行，
+ * 调用方的后续阶段（如thenApply）不会阻塞I/O分发线程上的其他连接<br>
+ * 注：回调线程池中执行时恢复发起请求时的MDC内容（同 {@link com.ck.platform.common.util.pool.RunnableMdcWarpper}），以便链路追踪，
+ * 且CompletableFuture后续同步阶段也能获取到MDC内容
+ *
+ * @author chenck
+ * @date 2026/10/18 10:40
+ */
+class HttpAsyncResponseCallback implements FutureCallback<HttpResponse> {
+
+    /**
+     * 回调线程池（所有异步连接池共用，无界队列，保证每个请求的CompletableFuture都会完成）
+     */
+    private static final ThreadPoolExecutor CALLBACK_EXECUTOR;
+
+    static {
+        int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+        CALLBACK_EXECUTOR = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory("httpclient_async-callback-"));
+        CALLBACK_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private final HttpClientParam reqParam;
+    private final CompletableFuture<HttpResultDto> resultFuture;
+    private final Map<String, String> contextMap;
+    /**
+     * 请求使用的代理地址，未使用代理时为null
+     */
+    private final String proxyIp;
+
+    HttpAsyncResponseCallback(HttpClientParam reqParam, CompletableFuture<HttpResultDto> resultFuture, String proxyIp) {
+        this.reqParam = reqParam;
+        this.resultFuture = resultFuture;
+        this.contextMap = MDC.getCopyOfContextMap();
+        this.proxyIp = proxyIp;
+    }
+
+    @Override
+    public void completed(HttpResponse response) {
+        dispatch(() -> {
+            HttpResultDto httpResultDto = new HttpResultDto();
+            httpResultDto.setProxyIp(proxyIp);
+            try {
+                HttpClientUtil.handleResponse(reqParam, response, httpResultDto);
+            } catch (Exception e) {
+                HttpClientUtil.handleException(reqParam, e, httpResultDto);
+            }
+            resultFuture.complete(httpResultDto);
+        });
+    }
+
+    @Override
+    public void failed(Exception ex) {
+        dispatch(() -> {
+            HttpResultDto httpResultDto = new HttpResultDto();
+            httpResultDto.setProxyIp(proxyIp);
+            HttpClientUtil.handleException(reqParam, ex, httpResultDto);
+            resultFuture.complete(httpResultDto);
+        });
+    }
+
+    @Override
+    public void cancelled() {
+        dispatch(() -> resultFuture.cancel(false));
+    }
+
+    /**
+     * 转交回调线程池执行（恢复发起请求时的MDC内容），线程池已关闭时在当前线程执行
+     */
+    private void dispatch(Runnable task) {
+        Runnable mdcTask = () -> {
+            Map<String, String> oldContext = MdcUtil.beforeExecution(contextMap);
+            try {
+                task.run();
+            } finally {
+                MdcUtil.afterExecution(oldContext);
+            }
+        };
+        try {
+            CALLBACK_EXECUTOR.execute(mdcTask);
+        } catch (RejectedExecutionException e) {
+            mdcTask.run();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ck.platform.common.util.httpclient;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量请求结果
+ *
+ * @author chenck
+ * @date 2026/10/18 18:20
+ */
+@Data
+public class HttpBatchResult {
+
+    /**
+     * 各请求的结果，与入参顺序一致
+     */
+    private List<HttpResultDto> results;
+
+    /**
+     * 请求总数
+     */
+    private int total;
+
+    /**
+     * 成功数
+     */
+    private int successCount;
+
+    /**
+     * 失败数
+     */
+    private int failCount;
+
+    /**
+     * 超时数（含超过整体截止时间未完成或未发起的请求）
+     */
+    private int timeoutCount;
+
+    /**
+     * 超过整体截止时间未发起的请求数
+     */
+    private int notStartedCount;
+
+    /**
+     * 最大并发数
+     */
+    private int concurrency;
+
+    /**
+     * 整体耗时（单位：毫秒）
+     */
+    private long elapsedTime;
+
+    /**
+     * 是否全部成功
+     */
+    public boolean isAllSuccess() {
+        return successCount == total;
+    }
+}
@@ -0,0 +1,80 @@
+package com.ck.platform.common.util.httpclient;
+
+import com.ck.platform.common.util.httpclient.metrics.HttpCacheCounter;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.cache.CacheResponseStatus;
+import org.apache.http.client.cache.HttpCacheContext;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpExecutionAware;
+import org.apache.http.client.methods.HttpRequestWrapper;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.cache.BasicHttpCacheStorage;
+import org.apache.http.impl.client.cache.CacheConfig;
+import org.apache.http.impl.client.cache.CachingHttpClientBuilder;
+import org.apache.http.impl.execchain.ClientExecChain;
+
+import java.io.IOException;
+
+/**
+ * 带响应缓存的HttpClientBuilder<br>
+ * 1.遵循HTTP/1.1缓存语义：Cache-Control、Expires，过期后基于ETag/Last-Modified发起条件请求，服务端返回304时复用缓存<br>
+ * 2.缓存存储在内存中，按条目数限制大小，超出时淘汰最近最少使用的条目（LRU）<br>
+ * 3.作为共享缓存（同一连接池的所有请求共用），不缓存Cache-Control: private的响应，带Authorization的请求的响应只在服务端显式允许（public、s-maxage）时缓存<br>
+ * 4.携带会话信息的请求（Cookie、Authorization请求头，或设置了cookieStore、credentialsProvider、authCache）绕过缓存，避免不同会话之间串用响应<br>
+ * 5.统计缓存命中、未命中、校验及绕过次数<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 18:45
+ */
+class HttpCachingClientBuilder extends CachingHttpClientBuilder {
+
+    /**
+     * 上下文属性：为true时请求绕过缓存（由 {@link HttpApacheTransport#createContext(HttpClientParam)} 设置）
+     */
+    static final String BYPASS_CACHE = "http.cache.bypass";
+
+    private final HttpCacheCounter cacheCounter;
+
+    HttpCachingClientBuilder(HttpClientPoolConfig config, HttpCacheCounter cacheCounter) {
+        super();
+        this.cacheCounter = cacheCounter;
+        CacheConfig cacheConfig = CacheConfig.custom()
+                .setMaxCacheEntries(config.getCacheMaxEntries())
+                .setMaxObjectSize(config.getCacheMaxObjectSize())
+                .setSharedCache(true)
+                .build();
+        setCacheConfig(cacheConfig);
+        setHttpCacheStorage(new BasicHttpCacheStorage(cacheConfig));
+    }
+
+    @Override
+    protected ClientExecChain decorateMainExec(ClientExecChain mainExec) {
+        final ClientExecChain cachingExec = super.decorateMainExec(mainExec);
+        // 缓存命中时不会执行协议层的拦截器，所以在缓存层外统计缓存状态
+        return new ClientExecChain() {
+            @Override
+            public CloseableHttpResponse execute(HttpRoute route, HttpRequestWrapper request,
+                                                 HttpClientContext clientContext, HttpExecutionAware execAware)
+                    throws IOException, HttpException {
+                if (isSessionRequest(request, clientContext)) {
+                    cacheCounter.recordBypass();
+                    return mainExec.execute(route, request, clientContext, execAware);
+                }
+                CloseableHttpResponse response = cachingExec.execute(route, request, clientContext, execAware);
+                cacheCounter.record((CacheResponseStatus) clientContext.getAttribute(HttpCacheContext.CACHE_RESPONSE_STATUS));
+                return response;
+            }
+        };
+    }
+
+    /**
+     * 判断是否为携带会话信息的请求（Cookie请求头由协议层拦截器在缓存层之前添加）
+     */
+    private static boolean isSessionRequest(HttpRequestWrapper request, HttpClientContext clientContext) {
+        return Boolean.TRUE.equals(clientContext.getAttribute(BYPASS_CACHE))
+                || request.containsHeader(HttpHeaders.AUTHORIZATION)
+                || request.containsHeader("Cookie");
+    }
+}
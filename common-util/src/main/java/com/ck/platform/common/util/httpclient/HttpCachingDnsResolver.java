@@ -0,0 +1,296 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.util.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 带缓存及负载均衡的DNS解析器（每个连接池一个实例）
+ * <p>
+ * 1.解析结果按TTL缓存，过期后先返回旧的解析结果，并在后台线程刷新，DNS查询不占用请求的建连耗时<br>
+ * 2.每次解析按轮询顺序返回所有地址，新建的连接均匀分布到域名解析出的各个节点（连接失败时按返回顺序尝试下一个地址）<br>
+ * 3.连接失败的地址被剔除（排到最后，仅作为兜底）ejectMillis毫秒，到期后重新参与轮询，连接成功即恢复<br>
+ * 注：地址的连接结果由 {@link HttpAddressTrackingSocketFactory} 反馈
+ *
+ * @author chenck
+ * @date 2026/10/18 19:30
+ */
+public class HttpCachingDnsResolver implements DnsResolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpCachingDnsResolver.class);
+    /**
+     * 刷新失败时的重试间隔，单位毫秒
+     */
+    private static final long REFRESH_RETRY_MILLIS = 5000;
+    /**
+     * 缓存的最大域名数，超出时清除已过期的域名
+     */
+    private static final int MAX_HOSTS = 1024;
+    /**
+     * 后台刷新线程，所有连接池共用（同一域名同时只有一个刷新任务）
+     */
+    private static final ExecutorService REFRESH_EXECUTOR = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<Runnable>(MAX_HOSTS), new DaemonThreadFactory("httpclient_dns-refresh"));
+
+    private final String poolName;
+    private final long ttlMillis;
+    private final long ejectMillis;
+    private final DnsResolver delegate;
+    private final ConcurrentHashMap<String, HostEntry> cache = new ConcurrentHashMap<String, HostEntry>();
+
+    /**
+     * @param poolName    连接池名称
+     * @param ttlMillis   解析结果的缓存时长，单位毫秒
+     * @param ejectMillis 连接失败的地址的剔除时长，单位毫秒
+     */
+    public HttpCachingDnsResolver(String poolName, long ttlMillis, long ejectMillis) {
+        this(poolName, ttlMillis, ejectMillis, SystemDefaultDnsResolver.INSTANCE);
+    }
+
+    /**
+     * @param poolName    连接池名称
+     * @param ttlMillis   解析结果的缓存时长，单位毫秒
+     * @param ejectMillis 连接失败的地址的剔除时长，单位毫秒
+     * @param delegate    实际执行解析的DNS解析器
+     */
+    public HttpCachingDnsResolver(String poolName, long ttlMillis, long ejectMillis, DnsResolver delegate) {
+        Args.positive(ttlMillis, "ttlMillis");
+        Args.notNegative(ejectMillis, "ejectMillis");
+        Args.notNull(delegate, "delegate");
+        this.poolName = poolName;
+        this.ttlMillis = ttlMillis;
+        this.ejectMillis = ejectMillis;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        long now = System.currentTimeMillis();
+        HostEntry entry = cache.get(host);
+        if (null == entry) {
+            // 首次解析在请求线程中同步执行
+            if (cache.size() >= MAX_HOSTS) {
+                removeExpired(now);
+            }
+            HostEntry newEntry = new HostEntry(lookup(host), null, now + ttlMillis);
+            entry = cache.putIfAbsent(host, newEntry);
+            if (null == entry) {
+                entry = newEntry;
+            }
+        } else if (entry.expireAt <= now && entry.refreshing.compareAndSet(false, true)) {
+            final HostEntry expired = entry;
+            try {
+                REFRESH_EXECUTOR.execute(() -> refresh(host, expired));
+            } catch (RejectedExecutionException e) {
+                // 刷新任务积压，下次解析时再刷新
+                expired.refreshing.set(false);
+            }
+        }
+        return entry.select(now);
+    }
+
+    /**
+     * 反馈地址连接失败，剔除该地址
+     */
+    public void markFailure(String host, InetAddress address) {
+        AddressState state = getState(host, address);
+        if (null == state || ejectMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (state.ejectedUntil <= now) {
+            LOGGER.warn("[httpclient dns][poolName:{}][host:{}] eject address {} for {}ms", poolName, host,
+                    address.getHostAddress(), ejectMillis);
+        }
+        state.ejectedUntil = now + ejectMillis;
+    }
+
+    /**
+     * 反馈地址连接成功，恢复该地址
+     */
+    public void markSuccess(String host, InetAddress address) {
+        AddressState state = getState(host, address);
+        if (null != state && state.ejectedUntil != 0) {
+            state.ejectedUntil = 0;
+        }
+    }
+
+    /**
+     * 获取域名缓存的解析结果（按解析顺序，含被剔除的地址）
+     *
+     * @return 未缓存时返回null
+     */
+    public List<InetAddress> getCachedAddresses(String host) {
+        HostEntry entry = cache.get(host);
+        if (null == entry) {
+            return null;
+        }
+        List<InetAddress> addresses = new ArrayList<InetAddress>(entry.states.length);
+        for (AddressState state : entry.states) {
+            addresses.add(state.address);
+        }
+        return addresses;
+    }
+
+    /**
+     * 清除缓存的解析结果
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private InetAddress[] lookup(String host) throws UnknownHostException {
+        InetAddress[] addresses = delegate.resolve(host);
+        if (null == addresses || addresses.length == 0) {
+            throw new UnknownHostException(host);
+        }
+        return addresses;
+    }
+
+    private void refresh(String host, HostEntry expired) {
+        HostEntry refreshed;
+        try {
+            InetAddress[] addresses = lookup(host);
+            refreshed = new HostEntry(addresses, expired, System.currentTimeMillis() + ttlMillis);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("[httpclient dns][poolName:{}][host:{}] refreshed {}", poolName, host, Arrays.toString(addresses));
+            }
+        } catch (UnknownHostException | RuntimeException e) {
+            // 刷新失败时继续使用旧的解析结果，稍后重试
+            LOGGER.warn("[httpclient dns][poolName:{}][host:{}] refresh failed, use cached addresses, {}", poolName, host, e.toString());
+            refreshed = new HostEntry(expired, System.currentTimeMillis() + Math.min(ttlMillis, REFRESH_RETRY_MILLIS));
+        }
+        cache.replace(host, expired, refreshed);
+    }
+
+    private void removeExpired(long now) {
+        Iterator<HostEntry> iterator = cache.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expireAt <= now) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private AddressState getState(String host, InetAddress address) {
+        HostEntry entry = cache.get(host);
+        if (null == entry || null == address) {
+            return null;
+        }
+        for (AddressState state : entry.states) {
+            if (state.address.equals(address)) {
+                return state;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 单个地址的状态
+     */
+    private static final class AddressState {
+        final InetAddress address;
+        /**
+         * 剔除截止时间，0表示未剔除
+         */
+        volatile long ejectedUntil;
+
+        AddressState(InetAddress address) {
+            this.address = address;
+        }
+    }
+
+    /**
+     * 单个域名的解析结果
+     */
+    private static final class HostEntry {
+        final AddressState[] states;
+        final long expireAt;
+        final AtomicInteger next;
+        final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+        /**
+         * 新的解析结果，保留仍存在的地址的剔除状态及轮询位置
+         */
+        HostEntry(InetAddress[] addresses, HostEntry previous, long expireAt) {
+            Map<InetAddress, AddressState> previousStates = new LinkedHashMap<InetAddress, AddressState>();
+            if (null != previous) {
+                for (AddressState state : previous.states) {
+                    previousStates.put(state.address, state);
+                }
+            }
+            this.states = new AddressState[addresses.length];
+            for (int i = 0; i < addresses.length; i++) {
+                AddressState state = previousStates.get(addresses[i]);
+                this.states[i] = null != state ? state : new AddressState(addresses[i]);
+            }
+            this.expireAt = expireAt;
+            this.next = null != previous ? previous.next : new AtomicInteger();
+        }
+
+        /**
+         * 沿用旧的解析结果
+         */
+        HostEntry(HostEntry previous, long expireAt) {
+            this.states = previous.states;
+            this.expireAt = expireAt;
+            this.next = previous.next;
+        }
+
+        /**
+         * 返回所有地址
+         */
+        InetAddress[] select(long now) {
+            int size = states.length;
+            if (size == 1) {
+                return new InetAddress[]{states[0].address};
+            }
+            // 未被剔除的地址按轮询顺序排在前面，被剔除的地址排在最后
+            InetAddress[] result = new InetAddress[size];
+            int healthy = 0;
+            int tail = size;
+            for (AddressState state : states) {
+                if (state.ejectedUntil > now) {
+                    result[--tail] = state.address;
+                } else {
+                    result[healthy++] = state.address;
+                }
+            }
+            if (healthy > 1) {
+                rotate(result, healthy, (next.getAndIncrement() & Integer.MAX_VALUE) % healthy);
+            }
+            return result;
+        }
+
+        /**
+         * 将数组的前length个元素循环左移distance位
+         */
+        private static void rotate(InetAddress[] array, int length, int distance) {
+            if (distance == 0) {
+                return;
+            }
+            InetAddress[] head = Arrays.copyOfRange(array, 0, distance);
+            System.arraycopy(array, distance, array, 0, length - distance);
+            System.arraycopy(head, 0, array, length - distance, distance);
+        }
+    }
+}
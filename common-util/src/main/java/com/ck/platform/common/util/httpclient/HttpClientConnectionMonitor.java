@@ -1,13 +1,14 @@
 package com.ck.platform.common.util.httpclient;
 
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import com.ck.platform.common.util.httpclient.metrics.HttpPoolStats;
+import com.ck.platform.common.util.httpclient.metrics.HttpPoolStatsListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.TimeUnit;
+import java.util.List;
 
 /**
- * HttpClient连接池中的连接监控，用于清除过期和闲置的的连接
+ * HttpClient连接池中的连接监控，用于清除过期和闲置的的连接，并将连接池统计信息推送给监听器
  *
  * @author chenck
  * @date 2018/4/14 19:40
@@ -16,12 +17,14 @@ public class HttpClientConnectionMonitor implements Runnable {
 
     private static Logger LOGGER = LoggerFactory.getLogger(HttpClientConnectionMonitor.class);
 
-    PoolingHttpClientConnectionManager poolConnMgr;
+    HttpPoolingConnectionManager poolConnMgr;
     int connKeepAliveTime;
+    List<HttpPoolStatsListener> listeners;
 
-    public HttpClientConnectionMonitor(PoolingHttpClientConnectionManager poolConnMgr, int connKeepAliveTime) {
+    public HttpClientConnectionMonitor(HttpPoolingConnectionManager poolConnMgr, int connKeepAliveTime, List<HttpPoolStatsListener> listeners) {
         this.poolConnMgr = poolConnMgr;
         this.connKeepAliveTime = connKeepAliveTime;
+        this.listeners = listeners;
     }
 
     @Override
@@ -30,16 +33,28 @@ public class HttpClientConnectionMonitor implements Runnable {
             LOGGER.debug("httpclient pool release start connect count={}", poolConnMgr.getTotalStats().getAvailable());
 
             // Close expired connections
-            poolConnMgr.closeExpiredConnections();
-
             // Optionally, close connections that have been idle longer than connKeepAliveTime MILLISECONDS
             // 空闲时间从交还给连接管理器时开始，不管是否已过期超过空闲时间则关闭。所以Idle时间应该设置的尽量长一点。
-            poolConnMgr.closeIdleConnections(connKeepAliveTime, TimeUnit.MILLISECONDS);
+            poolConnMgr.evictExpiredAndIdleConnections(connKeepAliveTime);
 
             LOGGER.debug("httpclient pool release end connect count={}", poolConnMgr.getTotalStats().getAvailable());
 
         } catch (Exception e) {
             LOGGER.error("httpclient pool release error", e);
         }
+
+        if (null == listeners || listeners.isEmpty()) {
+            return;
+        }
+        HttpPoolStats stats = poolConnMgr.getPoolStats();
+        LOGGER.debug("httpclient pool stats poolName={}, leased={}, available={}, pending={}, max={}", stats.getPoolName(),
+                stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
+        for (HttpPoolStatsListener listener : listeners) {
+            try {
+                listener.onStats(stats);
+            } catch (Exception e) {
+                LOGGER.error("httpclient pool stats listener error, listener=" + listener, e);
+            }
+        }
     }
 }
@@ -1,13 +1,23 @@
 package com.ck.platform.common.util.httpclient;
 
+import com.ck.platform.common.util.httpclient.metrics.HttpCacheCounter;
+import com.ck.platform.common.util.httpclient.metrics.HttpPoolStats;
+import com.ck.platform.common.util.httpclient.metrics.HttpPoolStatsListener;
+import com.ck.platform.common.util.httpclient.metrics.HttpTrafficCounter;
+import com.ck.platform.common.util.httpclient.metrics.HttpWarmUpStats;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
-import org.apache.http.NoHttpResponseException;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.HttpResponseInterceptor;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.fluent.Executor;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.utils.URIUtils;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.UnsupportedSchemeException;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
@@ -15,17 +25,24 @@ import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLInitializationException;
 import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
 import org.apache.http.protocol.HttpContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.net.ssl.SSLContext;
 import java.io.IOException;
-import java.net.SocketException;
+import java.net.URI;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -41,43 +58,372 @@ public class HttpClientExecutorProvider {
     private static Logger LOGGER = LoggerFactory.getLogger(HttpClientExecutorProvider.class);
 
     // 同一配置, 始终保持同一个连接,注：生产者和消费者均始终保持各自的同一个连接
-    private static final ConcurrentHashMap<String, Executor> EXECUTOR_MAP = new ConcurrentHashMap<String, Executor>();
+    private static final ConcurrentHashMap<String, HttpClientPool> POOL_MAP = new ConcurrentHashMap<String, HttpClientPool>();
+    // 连接池统计信息监听器
+    private static final List<HttpPoolStatsListener> POOL_STATS_LISTENERS = new CopyOnWriteArrayList<HttpPoolStatsListener>();
     // 锁, 防止重复连接同一配置
     private static final Object LOCK = new Object();
+    // 预热时未设置连接超时时间的默认值，单位毫秒
+    private static final int DEFAULT_WARM_UP_TIMEOUT = 3000;
+    // 预热时并发建立连接的最大线程数
+    private static final int MAX_WARM_UP_THREADS = 8;
 
     /**
-     * 获取HttpClient连接池Executor实例
+     * 获取HttpClient连接池Executor实例<br>
+     * 注：连接池已存在（显式声明或已被其他请求创建）时，以连接池配置为准，请求参数中的连接池配置不一致时告警一次<br>
+     * 注：每次调用返回新的Executor（共用连接池），Executor.use(cookieStore)等设置不再影响其他请求
      *
      * @param reqParam
      * @param reqConfig
      * @return
      * @author chenck
      * @date 2017年5月25日 下午5:54:07
+     * @deprecated 请求统一通过 {@link HttpClientUtil} 发送，Cookie及认证信息通过HttpClientParam设置（每个请求独立的上下文）
      */
+    @Deprecated
     public static Executor getInstance(HttpClientParam reqParam, RequestConfig reqConfig) {
+        return Executor.newInstance(getPool(reqParam, reqConfig).getHttpClient());
+    }
+
+    /**
+     * 获取连接池对应的传输层，见 {@link HttpTransport}
+     *
+     * @param reqParam  请求参数
+     * @param reqConfig 请求配置
+     */
+    static HttpTransport getTransport(HttpClientParam reqParam, RequestConfig reqConfig) {
+        return getPool(reqParam, reqConfig).getTransport();
+    }
+
+    /**
+     * 获取HttpClient连接池，不存在时根据请求参数创建
+     */
+    static HttpClientPool getPool(HttpClientParam reqParam, RequestConfig reqConfig) {
         if (null == reqParam) {
             throw new IllegalArgumentException("HttpClientParam should not be null");
         }
         if (null == reqConfig) {
             throw new IllegalArgumentException("RequestConfig should not be null");
         }
-        // 针对不同的PoolName实例化不同的Executor
+        // 针对不同的PoolName实例化不同的HttpClient
         String cachedKey = reqParam.getPoolName();
 
-        Executor executor = EXECUTOR_MAP.get(cachedKey);
-        if (null == executor) {
+        HttpClientPool pool = POOL_MAP.get(cachedKey);
+        if (null == pool) {
             synchronized (LOCK) {
-                executor = EXECUTOR_MAP.get(cachedKey);
-                if (null != executor) {
-                    return executor;
+                pool = POOL_MAP.get(cachedKey);
+                if (null == pool) {
+                    pool = createHttpClientPool(HttpClientPoolConfig.from(reqParam), reqConfig);
+                    POOL_MAP.put(cachedKey, pool);
+                    return pool;
+                }
+            }
+        }
+        if (!pool.getConfig().isSameAs(reqParam) && pool.markMismatchWarned()) {
+            LOGGER.warn("[httpclient pool config mismatch, request config is ignored][poolName:{}][poolConfig:{}][reqParam maxConnTotal={}, maxConnPerRoute={}, retryExecutionCount={}, connKeepAliveTime={}, validateAfterInactivity={}]",
+                    cachedKey, pool.getConfig(), reqParam.getMaxConnTotal(), reqParam.getMaxConnPerRoute(),
+                    reqParam.getRetryExecutionCount(), reqParam.getConnKeepAliveTime(), reqParam.getValidateAfterInactivity());
+        }
+        return pool;
+    }
+
+    /**
+     * 显式声明连接池（建议在应用启动时声明）<br>
+     * 1.连接池不存在时，按配置创建<br>
+     * 2.连接池已存在时，调整maxConnTotal、maxConnPerRoute、maxConnPerHost、retryPolicy、logPolicy、预热配置及代理池（设置了proxyPool时按新配置重建），其余配置不支持运行时变更，不一致时告警<br>
+     * 3.配置了预热地址（warmUpUrls）时，创建或调整后同步预热连接<br>
+     * 注：连接池持有配置的副本，注册后修改传入的配置对象不影响连接池；连接池大小的调整同时应用到同名的异步连接池<br>
+     *
+     * @param config 连接池配置
+     */
+    public static void register(HttpClientPoolConfig config) {
+        if (null == config) {
+            throw new IllegalArgumentException("HttpClientPoolConfig should not be null");
+        }
+        config = config.copy();
+        checkPoolSize(config.getMaxConnTotal(), config.getMaxConnPerRoute());
+        HttpClientPool pool;
+        synchronized (LOCK) {
+            pool = POOL_MAP.get(config.getPoolName());
+            if (null == pool) {
+                RequestConfig reqConfig = null != config.getDefaultRequestConfig() ? config.getDefaultRequestConfig() : RequestConfig.DEFAULT;
+                pool = createHttpClientPool(config, reqConfig);
+                POOL_MAP.put(config.getPoolName(), pool);
+                LOGGER.info("[httpclient pool registered][poolConfig:{}]", config);
+            } else {
+                HttpClientPoolConfig poolConfig = pool.getConfig();
+                if (poolConfig.getRetryExecutionCount() != config.getRetryExecutionCount()
+                        || poolConfig.getConnKeepAliveTime() != config.getConnKeepAliveTime()
+                        || poolConfig.getValidateAfterInactivity() != config.getValidateAfterInactivity()) {
+                    LOGGER.warn("[httpclient pool already exists, only maxConnTotal/maxConnPerRoute/maxConnPerHost/retryPolicy/logPolicy/warmUp/proxyPool are applied][poolName:{}][poolConfig:{}][newConfig:{}]",
+                            config.getPoolName(), poolConfig, config);
+                }
+                resize(pool, config.getMaxConnTotal(), config.getMaxConnPerRoute());
+                poolConfig.setRetryPolicy(config.getRetryPolicy());
+                poolConfig.setLogPolicy(config.getLogPolicy());
+                if (null != config.getProxyPool()) {
+                    pool.resetProxyPool(config.getProxyPool());
+                }
+                poolConfig.setWarmUpUrls(config.getWarmUpUrls())
+                        .setWarmUpConnPerRoute(config.getWarmUpConnPerRoute())
+                        .setWarmUpHead(config.isWarmUpHead());
+                if (null != config.getMaxConnPerHost()) {
+                    for (Map.Entry<String, Integer> entry : config.getMaxConnPerHost().entrySet()) {
+                        setMaxConnPerHost(pool, entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+        }
+        // 预热在锁外执行，避免阻塞其他连接池的创建
+        warmUpConfigured(pool);
+    }
+
+    /**
+     * 运行时调整连接池大小（不重建HttpClient，已租用的连接不受影响），同时应用到同名的异步连接池<br>
+     * 注：配置了预热地址（warmUpUrls）时，调整后同步预热连接
+     *
+     * @param poolName        连接池名称
+     * @param maxConnTotal    最大并发连接数
+     * @param maxConnPerRoute 单路由的最大并发连接数（未单独设置的路由）
+     */
+    public static void resize(String poolName, int maxConnTotal, int maxConnPerRoute) {
+        checkPoolSize(maxConnTotal, maxConnPerRoute);
+        HttpClientPool pool;
+        synchronized (LOCK) {
+            pool = getExistsPool(poolName);
+            resize(pool, maxConnTotal, maxConnPerRoute);
+        }
+        warmUpConfigured(pool);
+    }
+
+    /**
+     * 预热连接池：按请求地址所在的路由分组，每个路由建立connPerRoute个连接（https含TLS握手）并放回连接池，
+     * 避免启动或扩容后的首批请求承担建连耗时<br>
+     * 注：每个路由的连接数不超过该路由的最大连接数；预热地址只用于确定路由，head为true时对每个路由的第一个地址发送HEAD请求
+     *
+     * @param poolName     连接池名称
+     * @param urls         预热地址，如 https://api.test.com/health
+     * @param connPerRoute 每个路由建立的连接数
+     * @param head         是否发送HEAD请求
+     * @return 各路由的预热结果（含耗时）
+     */
+    public static List<HttpWarmUpStats> warmUp(String poolName, List<String> urls, int connPerRoute, boolean head) {
+        if (null == urls || urls.isEmpty()) {
+            throw new IllegalArgumentException("urls should not be empty");
+        }
+        if (connPerRoute <= 0) {
+            throw new IllegalArgumentException("connPerRoute should be positive");
+        }
+        return warmUp(getExistsPool(poolName), urls, connPerRoute, head);
+    }
+
+    private static void warmUpConfigured(HttpClientPool pool) {
+        HttpClientPoolConfig config = pool.getConfig();
+        if (null == config.getWarmUpUrls() || config.getWarmUpUrls().isEmpty() || config.getWarmUpConnPerRoute() <= 0) {
+            return;
+        }
+        warmUp(pool, config.getWarmUpUrls(), config.getWarmUpConnPerRoute(), config.isWarmUpHead());
+    }
+
+    private static List<HttpWarmUpStats> warmUp(HttpClientPool pool, List<String> urls, int connPerRoute, boolean head) {
+        HttpClientPoolConfig config = pool.getConfig();
+        RequestConfig reqConfig = null != config.getDefaultRequestConfig() ? config.getDefaultRequestConfig() : RequestConfig.DEFAULT;
+        int connectTimeout = reqConfig.getConnectTimeout() > 0 ? reqConfig.getConnectTimeout() : DEFAULT_WARM_UP_TIMEOUT;
+
+        // 按路由分组，同一路由只预热一次
+        Map<HttpRoute, String> routeUrls = new LinkedHashMap<HttpRoute, String>();
+        for (String url : urls) {
+            routeUrls.putIfAbsent(toRoute(url), url.trim());
+        }
+
+        List<HttpWarmUpStats> statsList = new ArrayList<HttpWarmUpStats>(routeUrls.size());
+        ExecutorService connectExecutor = Executors.newFixedThreadPool(Math.min(connPerRoute, MAX_WARM_UP_THREADS),
+                new DaemonThreadFactory(config.getPoolName() + "_warm-up"));
+        try {
+            for (Map.Entry<HttpRoute, String> entry : routeUrls.entrySet()) {
+                long startTime = System.nanoTime();
+                HttpWarmUpStats stats = pool.getConnMgr().warmUp(entry.getKey(), connPerRoute, connectTimeout,
+                        config.getConnKeepAliveTime(), connectExecutor);
+                if (head) {
+                    stats.setHeadStatusCode(head(pool, entry.getValue(), reqConfig, connectTimeout));
                 }
-                // 通过自定义HttpClient设置自定义连接池
-                HttpClient httpClient = createHttpClient(reqParam, reqConfig);
-                executor = Executor.newInstance(httpClient);
-                EXECUTOR_MAP.putIfAbsent(cachedKey, executor);
+                stats.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+                LOGGER.info("[httpclient pool warm-up][poolName:{}][route:{}][opened:{}/{}][headStatusCode:{}][cost:{}ms]",
+                        stats.getPoolName(), stats.getRoute(), stats.getOpened(), stats.getRequested(),
+                        stats.getHeadStatusCode(), stats.getElapsedMillis());
+                statsList.add(stats);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("[httpclient pool warm-up][poolName:{}] interrupted", config.getPoolName());
+        } finally {
+            connectExecutor.shutdown();
+        }
+        return statsList;
+    }
+
+    /**
+     * 发送预热请求（HEAD），不计入熔断及耗时统计
+     *
+     * @return 响应状态码，请求失败时返回null
+     */
+    private static Integer head(HttpClientPool pool, String url, RequestConfig reqConfig, int connectTimeout) {
+        HttpHead request = new HttpHead(url);
+        request.setConfig(RequestConfig.copy(reqConfig).setConnectTimeout(connectTimeout)
+                .setConnectionRequestTimeout(connectTimeout).build());
+        try {
+            return pool.getHttpClient().execute(request, response -> response.getStatusLine().getStatusCode());
+        } catch (IOException e) {
+            LOGGER.warn("[httpclient pool warm-up][poolName:{}][url:{}] head request failed, {}",
+                    pool.getConfig().getPoolName(), url, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * 运行时调整指定主机的单路由最大并发连接数（只对直连的路由生效），同时应用到同名的异步连接池
+     *
+     * @param poolName        连接池名称
+     * @param host            主机地址，如 https://api.test.com，也可为完整的请求地址
+     * @param maxConnPerRoute 最大并发连接数
+     */
+    public static void setMaxConnPerHost(String poolName, String host, int maxConnPerRoute) {
+        if (maxConnPerRoute <= 0) {
+            throw new IllegalArgumentException("maxConnPerRoute should be positive");
+        }
+        synchronized (LOCK) {
+            setMaxConnPerHost(getExistsPool(poolName), host, maxConnPerRoute);
+        }
+    }
+
+    /**
+     * 获取连接池配置
+     *
+     * @param poolName 连接池名称
+     * @return 连接池不存在时返回null
+     */
+    public static HttpClientPoolConfig getPoolConfig(String poolName) {
+        HttpClientPool pool = POOL_MAP.get(poolName);
+        return null == pool ? null : pool.getConfig();
+    }
+
+    /**
+     * 获取连接池的代理池，可运行时添加、移除代理及获取各代理的统计信息
+     *
+     * @param poolName 连接池名称
+     * @return 连接池不存在或未配置代理池时返回null
+     */
+    public static HttpProxyPool getProxyPool(String poolName) {
+        HttpClientPool pool = POOL_MAP.get(poolName);
+        return null == pool ? null : pool.getProxyPool();
+    }
+
+    private static HttpClientPool getExistsPool(String poolName) {
+        HttpClientPool pool = POOL_MAP.get(poolName);
+        if (null == pool) {
+            throw new IllegalArgumentException("httpclient pool not exists, poolName=" + poolName);
+        }
+        return pool;
+    }
+
+    private static void checkPoolSize(int maxConnTotal, int maxConnPerRoute) {
+        if (maxConnTotal <= 0 || maxConnPerRoute <= 0) {
+            throw new IllegalArgumentException("maxConnTotal and maxConnPerRoute should be positive");
+        }
+        if (maxConnPerRoute > maxConnTotal) {
+            throw new IllegalArgumentException("maxConnPerRoute should not be greater than maxConnTotal");
+        }
+    }
+
+    private static void resize(HttpClientPool pool, int maxConnTotal, int maxConnPerRoute) {
+        HttpPoolingConnectionManager connMgr = pool.getConnMgr();
+        LOGGER.info("[httpclient pool resize][poolName:{}][maxConnTotal:{}->{}][maxConnPerRoute:{}->{}]", connMgr.getPoolName(),
+                connMgr.getMaxTotal(), maxConnTotal, connMgr.getDefaultMaxPerRoute(), maxConnPerRoute);
+        connMgr.setMaxTotal(maxConnTotal);
+        connMgr.setDefaultMaxPerRoute(maxConnPerRoute);
+        pool.getConfig().setMaxConnTotal(maxConnTotal).setMaxConnPerRoute(maxConnPerRoute);
+        // 先更新配置再调整异步连接池，并发创建的异步连接池读取到的是新配置
+        HttpAsyncClientProvider.resize(connMgr.getPoolName(), maxConnTotal, maxConnPerRoute);
+    }
+
+    private static void setMaxConnPerHost(HttpClientPool pool, String host, int maxConnPerRoute) {
+        HttpRoute route = toRoute(host);
+        LOGGER.info("[httpclient pool set maxConnPerRoute][poolName:{}][route:{}][maxConnPerRoute:{}->{}]",
+                pool.getConnMgr().getPoolName(), route, pool.getConnMgr().getMaxPerRoute(route), maxConnPerRoute);
+        pool.getConnMgr().setMaxPerRoute(route, maxConnPerRoute);
+        pool.getConfig().setMaxConnPerHost(host, maxConnPerRoute);
+        HttpAsyncClientProvider.setMaxPerRoute(pool.getConnMgr().getPoolName(), route, maxConnPerRoute);
+    }
+
+    /**
+     * 主机地址转换为直连路由（与DefaultRoutePlanner的规则保持一致：未指定端口时使用协议默认端口）
+     *
+     * @param host 主机地址，如 https://api.test.com 或 http://10.0.0.1:8080/path
+     * @return
+     */
+    static HttpRoute toRoute(String host) {
+        if (StringUtils.isBlank(host)) {
+            throw new IllegalArgumentException("host should not be blank");
+        }
+        URI uri;
+        try {
+            uri = URI.create(host.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("illegal host: " + host, e);
+        }
+        HttpHost target = URIUtils.extractHost(uri);
+        if (null == target) {
+            throw new IllegalArgumentException("illegal host, scheme and hostname are required: " + host);
+        }
+        int port;
+        try {
+            port = DefaultSchemePortResolver.INSTANCE.resolve(target);
+        } catch (UnsupportedSchemeException e) {
+            throw new IllegalArgumentException("illegal host: " + host, e);
+        }
+        boolean secure = "https".equalsIgnoreCase(target.getSchemeName());
+        return new HttpRoute(new HttpHost(target.getHostName(), port, target.getSchemeName()), null, secure);
+    }
+
+    /**
+     * 获取指定连接池的统计信息（含各路由的统计信息）
+     *
+     * @param poolName 连接池名称
+     * @return 连接池不存在时返回null
+     */
+    public static HttpPoolStats getPoolStats(String poolName) {
+        HttpClientPool pool = POOL_MAP.get(poolName);
+        return null == pool ? null : pool.getConnMgr().getPoolStats();
+    }
+
+    /**
+     * 获取所有连接池的统计信息
+     */
+    public static List<HttpPoolStats> getPoolStats() {
+        List<HttpPoolStats> statsList = new ArrayList<HttpPoolStats>(POOL_MAP.size());
+        for (HttpClientPool pool : POOL_MAP.values()) {
+            statsList.add(pool.getConnMgr().getPoolStats());
+        }
+        return statsList;
+    }
+
+    /**
+     * 添加连接池统计信息监听器，连接池监控线程每10秒推送一次统计信息
+     *
+     * @param listener 监听器
+     */
+    public static void addPoolStatsListener(HttpPoolStatsListener listener) {
+        if (null == listener) {
+            throw new IllegalArgumentException("HttpPoolStatsListener should not be null");
         }
-        return executor;
+        POOL_STATS_LISTENERS.add(listener);
+    }
+
+    /**
+     * 移除连接池统计信息监听器
+     */
+    public static void removePoolStatsListener(HttpPoolStatsListener listener) {
+        POOL_STATS_LISTENERS.remove(listener);
     }
 
     /**
@@ -88,7 +434,7 @@ public class HttpClientExecutorProvider {
      * @author chenck
      * @date 2018/4/14 20:18
      */
-    private static PoolingHttpClientConnectionManager createPool(HttpClientParam reqParam, RequestConfig reqConfig) {
+    private static HttpPoolingConnectionManager createPool(HttpClientPoolConfig config) {
         LayeredConnectionSocketFactory ssl = null;
         try {
             ssl = SSLConnectionSocketFactory.getSystemSocketFactory();
@@ -104,33 +450,82 @@ public class HttpClientExecutorProvider {
             }
         }
 
-        final Registry<ConnectionSocketFactory> sfr = RegistryBuilder.<ConnectionSocketFactory>create()
-                .register("http", PlainConnectionSocketFactory.getSocketFactory())
-                .register("https", ssl != null ? ssl : SSLConnectionSocketFactory.getSocketFactory())
-                .build();
-
-        PoolingHttpClientConnectionManager connMgr = new PoolingHttpClientConnectionManager(sfr);
-        connMgr.setDefaultMaxPerRoute(reqParam.getMaxConnPerRoute());// 单路由的最大并发连接数
-        connMgr.setMaxTotal(reqParam.getMaxConnTotal());// 最大连接数
-        connMgr.setValidateAfterInactivity(reqParam.getValidateAfterInactivity());// 空闲的永久连接检查间隔
+        ConnectionSocketFactory http = PlainConnectionSocketFactory.getSocketFactory();
+        ConnectionSocketFactory https = ssl != null ? ssl : SSLConnectionSocketFactory.getSocketFactory();
+        HttpPoolingConnectionManager connMgr;
+        if (config.isDnsCacheEnabled()) {
+            // DNS缓存及地址负载均衡，连接结果反馈给DNS解析器用于剔除连接失败的地址
+            HttpCachingDnsResolver dnsResolver = new HttpCachingDnsResolver(config.getPoolName(),
+                    config.getDnsCacheTtl(), config.getDnsEjectTime());
+            final Registry<ConnectionSocketFactory> sfr = RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", HttpAddressTrackingSocketFactory.wrap(http, dnsResolver))
+                    .register("https", HttpAddressTrackingSocketFactory.wrap(https, dnsResolver))
+                    .build();
+            connMgr = new HttpPoolingConnectionManager(config.getPoolName(), sfr, dnsResolver);
+        } else {
+            final Registry<ConnectionSocketFactory> sfr = RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", http)
+                    .register("https", https)
+                    .build();
+            connMgr = new HttpPoolingConnectionManager(config.getPoolName(), sfr);
+        }
+        connMgr.setDefaultMaxPerRoute(config.getMaxConnPerRoute());// 单路由的最大并发连接数
+        connMgr.setMaxTotal(config.getMaxConnTotal());// 最大连接数
+        connMgr.setValidateAfterInactivity(config.getValidateAfterInactivity());// 空闲的永久连接检查间隔
+        // 指定主机的单路由最大并发连接数
+        if (null != config.getMaxConnPerHost()) {
+            for (Map.Entry<String, Integer> entry : config.getMaxConnPerHost().entrySet()) {
+                connMgr.setMaxPerRoute(toRoute(entry.getKey()), entry.getValue());
+            }
+        }
         return connMgr;
     }
 
     /**
-     * 创建HttpClient
+     * 创建连接保持策略
+     * 注：同步连接池与异步连接池共用该策略
      *
-     * @param reqParam
+     * @param connKeepAliveTime 服务端未明确设置keep-alive时的连接存活时长,单位毫秒
+     * @return
+     */
+    static ConnectionKeepAliveStrategy createKeepAliveStrategy(final int connKeepAliveTime) {
+        return new DefaultConnectionKeepAliveStrategy() {
+            @Override
+            public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                long keepAlive = super.getKeepAliveDuration(response, context);
+                // keep-alive默认策略为连接永久有效，如果keep-alive值没有由服务器明确设置，那么将连接的存活时间设置为指定时长
+                if (keepAlive == -1) {
+                    keepAlive = connKeepAliveTime;
+                }
+                return keepAlive;
+            }
+        };
+    }
+
+    /**
+     * 创建HttpClient连接池
+     *
+     * @param config
      * @param reqConfig
      * @return
      * @author chenck
      * @date 2017年5月25日 下午5:53:58
      */
-    private static HttpClient createHttpClient(HttpClientParam reqParam, RequestConfig reqConfig) {
-        // custom HttpClient
-        HttpClientBuilder httpClientBuilder = HttpClientBuilder.create()
-                .setDefaultRequestConfig(reqConfig)
-                .setMaxConnTotal(reqParam.getMaxConnTotal())
-                .setMaxConnPerRoute(reqParam.getMaxConnPerRoute());
+    private static HttpClientPool createHttpClientPool(HttpClientPoolConfig config, RequestConfig reqConfig) {
+        checkPoolSize(config.getMaxConnTotal(), config.getMaxConnPerRoute());
+        // 连接池
+        HttpPoolingConnectionManager connMgr = createPool(config);
+
+        // custom HttpClient，启用响应缓存时在执行链外层增加缓存层
+        HttpClientBuilder httpClientBuilder;
+        if (config.isCacheEnabled()) {
+            HttpCacheCounter cacheCounter = new HttpCacheCounter();
+            connMgr.setCacheCounter(cacheCounter);
+            httpClientBuilder = new HttpCachingClientBuilder(config, cacheCounter);
+        } else {
+            httpClientBuilder = HttpClientBuilder.create();
+        }
+        httpClientBuilder.setDefaultRequestConfig(reqConfig);
 
         // RequestConfig.Builder.setProxy也可显示设置代理【此方式设置代理优先使用】
         // 注：外层设置代理到环境变量中时，针对不同请求协议（http/https）需分别配置
@@ -138,55 +533,46 @@ public class HttpClientExecutorProvider {
         // https.proxyHost和https.proxyPort
         httpClientBuilder.useSystemProperties();
 
-        // 连接池
-        PoolingHttpClientConnectionManager connMgr = createPool(reqParam, reqConfig);
         httpClientBuilder.setConnectionManager(connMgr);
 
+        // 压缩：请求体按阈值压缩；响应按Accept-Encoding协商后边读边解压
+        // 注：最先执行的响应拦截器统计传输字节数（解压前），最后执行的统计解码字节数（解压后）
+        final HttpTrafficCounter trafficCounter = connMgr.getTrafficCounter();
+        if (StringUtils.isNotBlank(config.getRequestCompression())) {
+            httpClientBuilder.addInterceptorFirst(new HttpRequestCompressionInterceptor(config.getRequestCompression(),
+                    config.getRequestCompressionThreshold(), trafficCounter));
+        }
+        if (!config.isContentCompressionEnabled()) {
+            httpClientBuilder.disableContentCompression();
+        }
+        httpClientBuilder.addInterceptorFirst((HttpResponseInterceptor) (response, context) -> {
+            if (null != response.getEntity()) {
+                response.setEntity(new HttpCountingEntity(response.getEntity(), trafficCounter.getResponseWireBytes()));
+            }
+        });
+        httpClientBuilder.addInterceptorLast((HttpResponseInterceptor) (response, context) -> {
+            if (null != response.getEntity()) {
+                response.setEntity(new HttpCountingEntity(response.getEntity(), trafficCounter.getResponseDecodedBytes()));
+            }
+        });
+
         // 问题：从连接池中获取的连接已失效，导致请求服务端失败。
         // 分析：如果服务端针对长连接有设置过期策略，那么当服务端连接已关闭时，客户端是无法检测到这个状态变化而及时关闭连接的。这就造成了线程从连接池中获取的连接不一定是有效的。
         // 方案：客户端设置连接的有效时间，然后定期清除过期和闲置的的连接
         // 注：清除连接池中过期和失效的连接，HttpClientBuilder.build()方法中的IdleConnectionEvictor线程有支持清除，可不用自己实现（设置对应的参数即可）
-        final int connKeepAliveTime = reqParam.getConnKeepAliveTime();
-        httpClientBuilder.setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy() {
-            @Override
-            public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
-                long keepAlive = super.getKeepAliveDuration(response, context);
-                // keep-alive默认策略为连接永久有效，如果keep-alive值没有由服务器明确设置，那么将连接的存活时间设置为指定时长
-                if (keepAlive == -1) {
-                    keepAlive = connKeepAliveTime;
-                }
-                return keepAlive;
-            }
-        });
+        final int connKeepAliveTime = config.getConnKeepAliveTime();
+        httpClientBuilder.setKeepAliveStrategy(createKeepAliveStrategy(connKeepAliveTime));
 
         // 定期清除过期和闲置的的连接（第一次延迟3秒执行，每10秒执行一次）
-        ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory(reqParam.getPoolName() + "_conn-monitor"));
-        scheduler.scheduleAtFixedRate(new HttpClientConnectionMonitor(connMgr, connKeepAliveTime), 3000, 10 * 1000, TimeUnit.MILLISECONDS);
-
-        // retry execution count
-        final int retryExecutionCount = reqParam.getRetryExecutionCount();
-        if (retryExecutionCount > 0) {
-            httpClientBuilder.setRetryHandler(new HttpRequestRetryHandler() {
-                @Override
-                public boolean retryRequest(IOException exception, int executionCount,
-                                            HttpContext context) {
-                    // 限制重试次数
-                    if (executionCount > retryExecutionCount) {
-                        return false;
-                    }
-                    if (exception instanceof NoHttpResponseException) {
-                        LOGGER.info("[NoHttpResponseException has retry request:"
-                                + context.toString() + "][executionCount:" + executionCount + "]");
-                        return true;
-                    } else if (exception instanceof SocketException) {
-                        LOGGER.info("[SocketException has retry request:" + context.toString()
-                                + "][executionCount:" + executionCount + "]");
-                        return true;
-                    }
-                    return false;
-                }
-            });
+        ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory(config.getPoolName() + "_conn-monitor"));
+        scheduler.scheduleAtFixedRate(new HttpClientConnectionMonitor(connMgr, connKeepAliveTime, POOL_STATS_LISTENERS), 3000, 10 * 1000, TimeUnit.MILLISECONDS);
+
+        // retry execution count, 连接层的立即重试（已废弃，见HttpRetryPolicy），请求或连接池配置了重试策略时不生效
+        if (config.getRetryExecutionCount() > 0) {
+            httpClientBuilder.setRetryHandler(new HttpRetryHandler(config.getRetryExecutionCount(), config));
+        } else {
+            httpClientBuilder.disableAutomaticRetries();
         }
-        return httpClientBuilder.build();
+        return new HttpClientPool(config, connMgr, httpClientBuilder.build(), scheduler);
     }
 }
@@ -8,10 +8,19 @@ import lombok.experimental.Accessors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.Credentials;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.AuthCache;
 import org.apache.http.client.CookieStore;
+import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.ResponseHandler;
 import org.apache.http.cookie.ClientCookie;
+import org.apache.http.impl.auth.BasicScheme;
+import org.apache.http.impl.client.BasicAuthCache;
 import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.cookie.BasicClientCookie;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.util.Args;
@@ -71,8 +80,11 @@ public class HttpClientParam {
      */
     private int maxConnPerRoute = 150;
     /**
-     * 重试执行次数,默认0
+     * 重试执行次数,默认1（连接层的立即重试，请求或连接池配置了重试策略时不生效）
+     *
+     * @deprecated 使用 {@link #retryPolicy} 代替
      */
+    @Deprecated
     private int retryExecutionCount = 1;
     /**
      * 连接空闲超时时间(即连接保持时间),单位毫秒
@@ -91,10 +103,18 @@ public class HttpClientParam {
     private String outFilePath;
 
     /**
-     * Cookie设置<br>
+     * Cookie设置，只对当前请求生效（每个请求独立的上下文），同一会话的多个请求可共用同一个cookieStore<br>
      * 注：domain的设置需要与requesturi中的域名一致，否则存在跨域cookie写不进去的问题<br>
      */
     private CookieStore cookieStore;
+    /**
+     * 认证信息（如Basic、Digest认证的用户名密码），只对当前请求生效
+     */
+    private CredentialsProvider credentialsProvider;
+    /**
+     * 认证缓存，用于抢先认证（首个请求即携带Authorization），同一会话的多个请求可共用同一个authCache
+     */
+    private AuthCache authCache;
     /**
      * 设置请求header,可设置Accept,User-Agent,Referer,Cookie等
      */
@@ -103,6 +123,32 @@ public class HttpClientParam {
      * 响应处理器
      */
     private ResponseHandler<Object> responseHandler;
+    /**
+     * 接口名称（如 HttpApiAnno.name），用于按接口隔离熔断器，未设置时按请求的主机地址隔离
+     */
+    private String apiName;
+    /**
+     * 是否合并相同的并发请求（single-flight），默认false<br>
+     * 启用后，method+requesturi+singleFlightHeaders相同的并发GET/HEAD请求只发起一次调用，所有等待者共享同一个HttpResultDto<br>
+     * 注：共享的HttpResultDto不应被修改
+     */
+    private boolean singleFlight = false;
+    /**
+     * 合并请求时，参与计算合并key的请求header名称（如Authorization、Accept-Language）
+     */
+    private List<String> singleFlightHeaders;
+    /**
+     * 重试策略，优先于连接池设置的重试策略（HttpClientPoolConfig.retryPolicy），见 {@link HttpRetryPolicy}
+     */
+    private HttpRetryPolicy retryPolicy;
+    /**
+     * 对冲请求策略，为null时不对冲（只对GET/HEAD请求生效），见 {@link HttpHedgePolicy}
+     */
+    private HttpHedgePolicy hedgePolicy;
+    /**
+     * 日志策略，优先于按接口名称及连接池设置的日志策略，见 {@link HttpLogPolicy}
+     */
+    private HttpLogPolicy logPolicy;
 
     /* 通过lombok来实现，更加简洁
     public static HttpClientParam of() {
@@ -116,6 +162,18 @@ public class HttpClientParam {
 
     // ------------ custom shortcut method
 
+    /**
+     * 启用合并相同的并发请求，并指定参与计算合并key的请求header名称
+     */
+    public HttpClientParam setSingleFlight(String... headerNames) {
+        this.singleFlight = true;
+        this.singleFlightHeaders = new ArrayList<String>(headerNames.length);
+        for (String headerName : headerNames) {
+            this.singleFlightHeaders.add(headerName);
+        }
+        return this;
+    }
+
     /**
      * 注：domain的设置需要与requesturi中的域名一致，否则存在跨域cookie写不进去的问题<br>
      */
@@ -154,6 +212,62 @@ public class HttpClientParam {
         return this;
     }
 
+    /**
+     * 设置认证的用户名密码，只对requesturi的主机及端口生效（重定向到其他主机时不发送）<br>
+     * 注：需先设置requesturi，否则使用 {@link #setCredentials(String, String, String)} 指定主机
+     */
+    public HttpClientParam setCredentials(String username, String password) {
+        String host = HttpLibs.getHost(this.requesturi);
+        if (null == host) {
+            throw new IllegalArgumentException("requesturi is not set or has no host, set requesturi first or specify the host of credentials");
+        }
+        return setCredentials(host, username, password);
+    }
+
+    /**
+     * 设置认证的用户名密码，只对指定主机及端口生效
+     *
+     * @param host 主机地址，如 https://api.test.com（未指定端口时按协议取默认端口）
+     */
+    public HttpClientParam setCredentials(String host, String username, String password) {
+        Args.notBlank(host, "host");
+        Args.notNull(username, "username");
+        HttpHost httpHost = HttpHost.create(host.trim());
+        int port = httpHost.getPort();
+        if (port < 0) {
+            port = "https".equalsIgnoreCase(httpHost.getSchemeName()) ? 443 : 80;
+        }
+        return setCredentials(new AuthScope(httpHost.getHostName(), port), new UsernamePasswordCredentials(username, password));
+    }
+
+    /**
+     * 设置指定认证范围的认证信息
+     */
+    public HttpClientParam setCredentials(AuthScope authScope, Credentials credentials) {
+        Args.notNull(authScope, "authScope");
+        Args.notNull(credentials, "credentials");
+        if (null == this.credentialsProvider) {
+            this.credentialsProvider = new BasicCredentialsProvider();
+        }
+        credentialsProvider.setCredentials(authScope, credentials);
+        return this;
+    }
+
+    /**
+     * 对指定主机启用Basic抢先认证（需同时设置认证信息）
+     *
+     * @param host 主机地址，如 https://api.test.com
+     */
+    public HttpClientParam setAuthPreemptive(String host) {
+        Args.notBlank(host, "host");
+        HttpHost httpHost = HttpHost.create(host.trim());
+        if (null == this.authCache) {
+            this.authCache = new BasicAuthCache();
+        }
+        authCache.put(httpHost, new BasicScheme());
+        return this;
+    }
+
     /**
      * 设置请求header,可设置Accept,User-Agent,Referer,Cookie等
      */
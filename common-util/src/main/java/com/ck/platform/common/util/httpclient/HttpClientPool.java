@@ -0,0 +1,120 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 已创建的HttpClient连接池，持有连接池配置、连接管理器、HttpClient、传输层及代理池
+ *
+ * @author chenck
+ * @date 2026/10/18 17:45
+ */
+class HttpClientPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientPool.class);
+    /**
+     * JDK 11+ 传输层的实现类（位于多版本jar的META-INF/versions/11中）
+     */
+    private static final String JDK_TRANSPORT_CLASS = "com.ck.platform.common.util.httpclient.HttpJdkTransport";
+
+    private final HttpClientPoolConfig config;
+    private final HttpPoolingConnectionManager connMgr;
+    private final CloseableHttpClient httpClient;
+    private final HttpTransport transport;
+    private final ScheduledExecutorService scheduler;
+    /**
+     * 代理池，未配置时为null
+     */
+    private volatile HttpProxyPool proxyPool;
+    /**
+     * 请求参数与连接池配置不一致时，只告警一次
+     */
+    private final AtomicBoolean mismatchWarned = new AtomicBoolean(false);
+
+    HttpClientPool(HttpClientPoolConfig config, HttpPoolingConnectionManager connMgr, CloseableHttpClient httpClient,
+                   ScheduledExecutorService scheduler) {
+        this.config = config;
+        this.connMgr = connMgr;
+        this.httpClient = httpClient;
+        this.scheduler = scheduler;
+        this.transport = createTransport(config, new HttpApacheTransport(httpClient));
+        if (null != config.getProxyPool()) {
+            this.proxyPool = new HttpProxyPool(config.getPoolName(), config.getProxyPool(), httpClient, null);
+        }
+    }
+
+    /**
+     * 按连接池配置创建传输层，jdk传输层不可用（如JDK 8）时回退为apache
+     */
+    private static HttpTransport createTransport(HttpClientPoolConfig config, HttpTransport apacheTransport) {
+        String name = config.getTransport();
+        if (null == name || HttpTransport.APACHE.equalsIgnoreCase(name)) {
+            return apacheTransport;
+        }
+        if (!HttpTransport.JDK.equalsIgnoreCase(name)) {
+            throw new IllegalArgumentException("unsupported transport: " + name + ", should be apache or jdk");
+        }
+        try {
+            Class<?> clazz = Class.forName(JDK_TRANSPORT_CLASS, true, HttpClientPool.class.getClassLoader());
+            return (HttpTransport) clazz.getDeclaredConstructor(HttpClientPoolConfig.class, HttpTransport.class)
+                    .newInstance(config, apacheTransport);
+        } catch (ClassNotFoundException | LinkageError e) {
+            LOGGER.warn("[httpclient transport][poolName:{}] jdk transport requires JDK 11+, fallback to apache, java.version={}",
+                    config.getPoolName(), System.getProperty("java.version"));
+            return apacheTransport;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("create jdk transport error", e);
+        }
+    }
+
+    HttpClientPoolConfig getConfig() {
+        return config;
+    }
+
+    HttpPoolingConnectionManager getConnMgr() {
+        return connMgr;
+    }
+
+    CloseableHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    HttpTransport getTransport() {
+        return transport;
+    }
+
+    HttpProxyPool getProxyPool() {
+        return proxyPool;
+    }
+
+    /**
+     * 按新配置重建代理池，为null时移除代理池<br>
+     * 注：配置未变化时不重建；重建时仍在配置中的代理保留其状态（成功率、耗时、剔除状态及进行中的请求数）
+     */
+    void resetProxyPool(HttpProxyPoolConfig proxyPoolConfig) {
+        HttpProxyPool old = this.proxyPool;
+        if (null != old && null != proxyPoolConfig && proxyPoolConfig.equals(old.getConfig())) {
+            return;
+        }
+        this.proxyPool = null == proxyPoolConfig ? null : new HttpProxyPool(config.getPoolName(), proxyPoolConfig, httpClient, old);
+        config.setProxyPool(proxyPoolConfig);
+        if (null != old) {
+            old.shutdown();
+        }
+    }
+
+    ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * 是否首次发现不一致（用于只告警一次）
+     */
+    boolean markMismatchWarned() {
+        return mismatchWarned.compareAndSet(false, true);
+    }
+}
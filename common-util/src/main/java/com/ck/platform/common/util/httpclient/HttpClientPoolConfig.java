@@ -0,0 +1,238 @@
+package com.ck.platform.common.util.httpclient;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.util.Args;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HttpClient连接池配置<br>
+ * 通过 {@link HttpClientExecutorProvider#register(HttpClientPoolConfig)} 显式声明连接池，
+ * 未显式声明的连接池，由第一个使用该poolName的请求参数(HttpClientParam)创建<br>
+ * 注：maxConnTotal、maxConnPerRoute、maxConnPerHost、retryPolicy、logPolicy、预热配置、proxyPool 支持运行时调整，其余配置（含响应缓存配置）在连接池创建后不再变更<br>
+ * 注：注册时连接池持有配置的副本，注册后修改原配置对象不影响连接池，运行时调整需再次注册或调用HttpClientExecutorProvider的调整方法<br>
+ * 支持链式调用<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 17:40
+ */
+@Data
+@Accessors(chain = true)
+@NoArgsConstructor(staticName = "of")
+@RequiredArgsConstructor(staticName = "of")
+public class HttpClientPoolConfig {
+
+    /**
+     * 请求参数的默认值，用于判断请求参数是否修改了连接池配置
+     */
+    private static final HttpClientParam DEFAULT_PARAM = HttpClientParam.of();
+
+    /**
+     * 连接池名称
+     */
+    @NonNull
+    private String poolName;
+    /**
+     * 表示连接池最大并发连接数,默认300
+     */
+    private volatile int maxConnTotal = 300;
+    /**
+     * 表示单路由的最大并发连接数,默认150
+     */
+    private volatile int maxConnPerRoute = 150;
+    /**
+     * 指定主机的单路由最大并发连接数，优先于maxConnPerRoute<br>
+     * key为主机地址，如 https://api.test.com 或 http://10.0.0.1:8080，value为最大并发连接数<br>
+     * 注：只对直连（未经过代理）的路由生效
+     */
+    private volatile Map<String, Integer> maxConnPerHost;
+    /**
+     * 传输层：apache（默认）、jdk（JDK 11+，支持HTTP/2多路复用，不可用时回退为apache），见 {@link HttpTransport}<br>
+     * 注：jdk传输层不支持按请求设置代理、Cookie及认证信息，设置了代理、cookieStore、credentialsProvider或authCache的请求仍通过apache传输层发送
+     */
+    private String transport = HttpTransport.APACHE;
+    /**
+     * 代理池配置，为null时不使用代理池（未显式设置代理的请求从代理池中选择代理），见 {@link HttpProxyPool}
+     */
+    private volatile HttpProxyPoolConfig proxyPool;
+    /**
+     * 重试执行次数,默认1（连接层的立即重试，请求或连接池配置了重试策略时不生效）
+     *
+     * @deprecated 使用 {@link #retryPolicy} 代替
+     */
+    @Deprecated
+    private int retryExecutionCount = 1;
+    /**
+     * 重试策略（退避重试、按状态码重试、重试预算），为null时不重试，请求可通过HttpClientParam.retryPolicy覆盖
+     */
+    private volatile HttpRetryPolicy retryPolicy;
+    /**
+     * 日志策略（截断、采样、级别、异步），为null时使用默认策略，见 {@link HttpLogPolicy}
+     */
+    private volatile HttpLogPolicy logPolicy;
+    /**
+     * 连接空闲超时时间(即连接保持时间),单位毫秒
+     */
+    private int connKeepAliveTime = 1 * 60 * 1000;
+    /**
+     * 空闲的永久连接检查间隔,单位毫秒
+     */
+    private int validateAfterInactivity = 1000;
+    /**
+     * 是否启用DNS缓存及地址负载均衡，默认不启用（使用JVM的DNS缓存，新建连接总是优先连接第一个地址），见 {@link HttpCachingDnsResolver}<br>
+     * 启用后解析结果按dnsCacheTtl缓存并在后台刷新，新建连接轮询域名解析出的各个地址，连接失败的地址剔除dnsEjectTime毫秒
+     */
+    private boolean dnsCacheEnabled = false;
+    /**
+     * DNS解析结果的缓存时长，单位毫秒
+     */
+    private long dnsCacheTtl = 60 * 1000;
+    /**
+     * 连接失败的地址的剔除时长，单位毫秒
+     */
+    private long dnsEjectTime = 30 * 1000;
+    /**
+     * 是否启用响应缓存（遵循HTTP/1.1共享缓存语义，支持ETag/Last-Modified条件校验，携带Cookie或认证信息的请求不使用缓存），默认不启用
+     */
+    private boolean cacheEnabled = false;
+    /**
+     * 响应缓存的最大条目数，超出时淘汰最近最少使用的条目
+     */
+    private int cacheMaxEntries = 1000;
+    /**
+     * 可缓存的单个响应的最大字节数，超出时不缓存
+     */
+    private long cacheMaxObjectSize = 64 * 1024;
+    /**
+     * 是否发送Accept-Encoding: gzip,deflate并自动解压响应（边读边解压，适用于输出到文件），默认启用
+     */
+    private boolean contentCompressionEnabled = true;
+    /**
+     * 请求体压缩方式：gzip、deflate，为null时不压缩（需服务端支持解压请求体）<br>
+     * 注：只作用于同步请求，异步请求（HttpClientUtil.invokeAsync/invokeAll）不压缩请求体
+     */
+    private String requestCompression;
+    /**
+     * 请求体压缩阈值，请求体长度达到该值（或长度未知）时压缩，单位字节
+     */
+    private long requestCompressionThreshold = 1024;
+    /**
+     * 默认请求配置，请求未设置超时、代理时使用
+     */
+    private RequestConfig defaultRequestConfig;
+    /**
+     * 预热地址，如 https://api.test.com/health，连接池声明及调整大小后按地址所在的路由预热连接，为空时不预热<br>
+     * 见 {@link HttpClientExecutorProvider#warmUp(String, List, int, boolean)}
+     */
+    private volatile List<String> warmUpUrls;
+    /**
+     * 每个路由预热的连接数，默认1
+     */
+    private volatile int warmUpConnPerRoute = 1;
+    /**
+     * 预热时是否对每个路由的第一个预热地址发送HEAD请求（如健康检查地址），默认false
+     */
+    private volatile boolean warmUpHead = false;
+
+    /**
+     * 根据请求参数生成连接池配置（用于未显式声明的连接池）
+     */
+    public static HttpClientPoolConfig from(HttpClientParam reqParam) {
+        return HttpClientPoolConfig.of(reqParam.getPoolName())
+                .setMaxConnTotal(reqParam.getMaxConnTotal())
+                .setMaxConnPerRoute(reqParam.getMaxConnPerRoute())
+                .setRetryExecutionCount(reqParam.getRetryExecutionCount())
+                .setConnKeepAliveTime(reqParam.getConnKeepAliveTime())
+                .setValidateAfterInactivity(reqParam.getValidateAfterInactivity());
+    }
+
+    /**
+     * 设置指定主机的单路由最大并发连接数（写时复制，运行时读取方不会读到修改中的集合）
+     *
+     * @param host            主机地址，如 https://api.test.com
+     * @param maxConnPerRoute 最大并发连接数
+     */
+    public HttpClientPoolConfig setMaxConnPerHost(String host, int maxConnPerRoute) {
+        Args.notBlank(host, "host");
+        Args.positive(maxConnPerRoute, "maxConnPerRoute");
+        Map<String, Integer> newMap = null == this.maxConnPerHost ? new LinkedHashMap<String, Integer>()
+                : new LinkedHashMap<String, Integer>(this.maxConnPerHost);
+        newMap.put(host, maxConnPerRoute);
+        this.maxConnPerHost = newMap;
+        return this;
+    }
+
+    /**
+     * 添加预热地址（写时复制）
+     *
+     * @param url 预热地址，如 https://api.test.com/health
+     */
+    public HttpClientPoolConfig addWarmUpUrl(String url) {
+        Args.notBlank(url, "url");
+        List<String> newList = null == this.warmUpUrls ? new ArrayList<String>() : new ArrayList<String>(this.warmUpUrls);
+        newList.add(url);
+        this.warmUpUrls = newList;
+        return this;
+    }
+
+    /**
+     * 复制配置（集合及代理池配置一并复制），连接池注册时持有副本
+     */
+    public HttpClientPoolConfig copy() {
+        HttpClientPoolConfig copy = HttpClientPoolConfig.of(poolName)
+                .setMaxConnTotal(maxConnTotal)
+                .setMaxConnPerRoute(maxConnPerRoute)
+                .setTransport(transport)
+                .setProxyPool(null == proxyPool ? null : proxyPool.copy())
+                .setRetryExecutionCount(retryExecutionCount)
+                .setRetryPolicy(retryPolicy)
+                .setLogPolicy(logPolicy)
+                .setConnKeepAliveTime(connKeepAliveTime)
+                .setValidateAfterInactivity(validateAfterInactivity)
+                .setDnsCacheEnabled(dnsCacheEnabled)
+                .setDnsCacheTtl(dnsCacheTtl)
+                .setDnsEjectTime(dnsEjectTime)
+                .setCacheEnabled(cacheEnabled)
+                .setCacheMaxEntries(cacheMaxEntries)
+                .setCacheMaxObjectSize(cacheMaxObjectSize)
+                .setContentCompressionEnabled(contentCompressionEnabled)
+                .setRequestCompression(requestCompression)
+                .setRequestCompressionThreshold(requestCompressionThreshold)
+                .setDefaultRequestConfig(defaultRequestConfig)
+                .setWarmUpConnPerRoute(warmUpConnPerRoute)
+                .setWarmUpHead(warmUpHead);
+        Map<String, Integer> perHost = maxConnPerHost;
+        if (null != perHost) {
+            copy.setMaxConnPerHost(new LinkedHashMap<String, Integer>(perHost));
+        }
+        List<String> urls = warmUpUrls;
+        if (null != urls) {
+            copy.setWarmUpUrls(new ArrayList<String>(urls));
+        }
+        return copy;
+    }
+
+    /**
+     * 判断请求参数中的连接池配置是否与当前配置一致<br>
+     * 注：只比较请求参数中修改过默认值的配置项，使用默认值的请求参数（如连接池已通过register显式声明）视为一致
+     */
+    public boolean isSameAs(HttpClientParam reqParam) {
+        return isSameAs(maxConnTotal, reqParam.getMaxConnTotal(), DEFAULT_PARAM.getMaxConnTotal())
+                && isSameAs(maxConnPerRoute, reqParam.getMaxConnPerRoute(), DEFAULT_PARAM.getMaxConnPerRoute())
+                && isSameAs(retryExecutionCount, reqParam.getRetryExecutionCount(), DEFAULT_PARAM.getRetryExecutionCount())
+                && isSameAs(connKeepAliveTime, reqParam.getConnKeepAliveTime(), DEFAULT_PARAM.getConnKeepAliveTime())
+                && isSameAs(validateAfterInactivity, reqParam.getValidateAfterInactivity(), DEFAULT_PARAM.getValidateAfterInactivity());
+    }
+
+    private static boolean isSameAs(int poolValue, int reqValue, int defaultValue) {
+        return reqValue == defaultValue || reqValue == poolValue;
+    }
+}
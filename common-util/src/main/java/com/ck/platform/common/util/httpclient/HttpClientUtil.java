@@ -1,5 +1,8 @@
 package com.ck.platform.common.util.httpclient;
 
+import com.ck.platform.common.util.httpclient.metrics.HttpLatencyRecorder;
+import com.ck.platform.common.util.httpclient.resilience.HttpCircuitBreaker;
+import com.ck.platform.common.util.httpclient.resilience.HttpCircuitBreakerRegistry;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Consts;
 import org.apache.http.Header;
@@ -9,28 +12,52 @@ import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.StatusLine;
+import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
-import org.apache.http.client.fluent.Executor;
-import org.apache.http.client.fluent.Request;
-import org.apache.http.client.fluent.Response;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.protocol.HTTP;
 import org.apache.http.util.Args;
+import org.apache.http.util.CharArrayBuffer;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 /**
  * 该工具类基于HttpClient-4.5.3 Fluent API实现(使用线程池)<br>
@@ -52,6 +79,16 @@ public class HttpClientUtil {
 
     private static Logger LOGGER = LoggerFactory.getLogger(HttpClientUtil.class);
 
+    /**
+     * 下载文件时的读写缓冲区大小
+     */
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 下载文件时线程内复用的读写缓冲区，避免每次下载都重新分配
+     */
+    private static final ThreadLocal<byte[]> TRANSFER_BUFFER = ThreadLocal.withInitial(() -> new byte[TRANSFER_BUFFER_SIZE]);
+
     private HttpClientUtil() {
     }
 
@@ -211,6 +248,12 @@ public class HttpClientUtil {
      * 2.优先启用设置的代理配置HttpHost，若未设置HttpHost，则取系统环境变量System.getProperty中代理配置<br>
      * 注：HttpEntity为StringEntity，则将参数以流的形式请求<br>
      * 注：HttpEntity为UrlEncodedFormEntity，则将参数以表单的形式请求<br>
+     * 注：HttpClientParam.singleFlight为true时，相同的并发GET/HEAD请求合并为一次调用，见 {@link HttpSingleFlight}<br>
+     * 注：启用熔断器时，熔断或超过并发限制的请求直接返回REJECTED，见 {@link HttpCircuitBreakerRegistry}<br>
+     * 注：设置了HttpClientParam.hedgePolicy的GET/HEAD请求，超过对冲延迟未完成时在对冲线程池中发起对冲请求（同样经过熔断、重试、代理池、传输层），见 {@link HttpHedging}<br>
+     * 注：请求耗时按连接池、路由、接口名称及结果记录到 {@link HttpLatencyRecorder}（对冲请求按调用方等待的时间记录一次）<br>
+     * 注：成功请求的日志按日志策略截断、采样、异步输出，失败及超时的日志始终输出，见 {@link HttpLogPolicy}<br>
+     * 注：连接池配置了代理池且未显式设置代理时，按代理的成功率、耗时选择代理，使用的代理地址写入HttpResultDto.proxyIp，见 {@link HttpProxyPool}<br>
      *
      * @param reqParam  请求参数
      * @param reqConfig 请求配置
@@ -219,121 +262,643 @@ public class HttpClientUtil {
      * @date 2017年4月27日 下午4:09:48
      */
     public static HttpResultDto invoke(HttpClientParam reqParam, RequestConfig reqConfig) {
-        HttpResultDto httpResultDto = new HttpResultDto();
-        Request request = null;
+        if (null != reqParam && HttpSingleFlight.isApplicable(reqParam)) {
+            Args.notBlank(reqParam.getRequesturi(), "request uri");
+            return HttpSingleFlight.execute(HttpSingleFlight.buildKey(reqParam, reqConfig),
+                    () -> HttpClientUtil.doInvoke(reqParam, reqConfig));
+        }
+        return HttpClientUtil.doInvoke(reqParam, reqConfig);
+    }
+
+    private static HttpResultDto doInvoke(HttpClientParam reqParam, RequestConfig reqConfig) {
+        Supplier<HttpResultDto> call = () -> HttpClientUtil.guard(reqParam, httpResultDto -> {
+            HttpClientUtil.execute(reqParam, reqConfig, httpResultDto, httpResponse -> {
+                HttpClientUtil.handleResponse(reqParam, httpResponse, httpResultDto);
+                return httpResultDto;
+            });
+        });
+        if (null != reqParam && HttpHedging.isApplicable(reqParam)) {
+            // 第一次请求及对冲请求均按同步请求的完整流程执行
+            return HttpHedging.executeSync(reqParam, call);
+        }
+        return call.get();
+    }
+
+    /**
+     * 通过熔断器及重试策略执行同步请求<br>
+     * 1.熔断或超过并发限制时直接返回REJECTED，不排队等待<br>
+     * 2.失败时按重试策略重试，见 {@link HttpRetryer}<br>
+     * 注：每次请求（含重试）单独获取熔断器许可并计入熔断器统计，重试的退避等待期间不占用并发许可；重试时被拒绝则直接返回REJECTED<br>
+     *
+     * @param reqParam 请求参数
+     * @param attempt  单次请求
+     * @return
+     */
+    private static HttpResultDto guard(HttpClientParam reqParam, HttpRetryer.Attempt attempt) {
+        return HttpClientUtil.guard(reqParam, attempt, () -> true);
+    }
+
+    /**
+     * 通过熔断器及重试策略执行同步请求
+     *
+     * @param reqParam  请求参数
+     * @param attempt   单次请求
+     * @param retryable 请求失败后是否允许重试
+     * @return
+     */
+    private static HttpResultDto guard(HttpClientParam reqParam, HttpRetryer.Attempt attempt, BooleanSupplier retryable) {
+        HttpCircuitBreaker breaker = null == reqParam ? null : HttpCircuitBreakerRegistry.getCircuitBreaker(reqParam);
+        HttpRetryer.Attempt guarded = null == breaker ? attempt : httpResultDto -> HttpClientUtil.guard(reqParam, breaker, attempt, httpResultDto);
+        long startTime = System.nanoTime();
+        HttpResultDto httpResultDto = HttpRetryer.execute(reqParam, guarded, retryable);
+        // 对冲请求的耗时由HttpHedging按调用方等待的时间记录一次
+        if (!HttpHedging.isHedgeAttempt()) {
+            HttpLatencyRecorder.record(reqParam, httpResultDto, System.nanoTime() - startTime);
+        }
+        return httpResultDto;
+    }
+
+    /**
+     * 通过熔断器执行单次请求，熔断或超过并发限制时结果为REJECTED
+     */
+    private static void guard(HttpClientParam reqParam, HttpCircuitBreaker breaker, HttpRetryer.Attempt attempt,
+                              HttpResultDto httpResultDto) throws Exception {
+        String rejectReason = breaker.tryAcquire();
+        if (null != rejectReason) {
+            HttpClientUtil.rejected(reqParam, rejectReason, httpResultDto);
+            return;
+        }
+        long startTime = System.nanoTime();
+        boolean failure = true;
+        try {
+            attempt.execute(httpResultDto);
+            failure = HttpClientUtil.isBreakerFailure(httpResultDto);
+        } finally {
+            if (HttpHedging.isAttemptCancelled()) {
+                breaker.onCancel();
+            } else {
+                breaker.onComplete(failure, System.nanoTime() - startTime);
+            }
+        }
+    }
+
+    private static HttpResultDto rejected(HttpClientParam reqParam, String rejectReason) {
+        return HttpClientUtil.rejected(reqParam, rejectReason, new HttpResultDto());
+    }
+
+    private static HttpResultDto rejected(HttpClientParam reqParam, String rejectReason, HttpResultDto httpResultDto) {
+        LOGGER.warn("[HttpClientUtil.invoke][" + reqParam.getMethod() + "][" + reqParam.getRequesturi() + "] request rejected, " + rejectReason);
+        httpResultDto.setRetCode(HttpResultDto.REJECTED);
+        httpResultDto.setRetMsg(rejectReason);
+        return httpResultDto;
+    }
+
+    /**
+     * 判断请求结果对熔断器而言是否为失败：超时、网络异常、5xx及429响应；其余4xx响应属于调用方错误，不计为失败
+     */
+    private static boolean isBreakerFailure(HttpResultDto httpResultDto) {
+        if (null == httpResultDto || httpResultDto.isTimeout()) {
+            return true;
+        }
+        if (!httpResultDto.isFail()) {
+            return false;
+        }
+        int statusCode = httpResultDto.getStatusCode();
+        return statusCode == 0 || statusCode >= 500 || statusCode == 429;
+    }
+
+    /**
+     * 【简易】执行请求，并以流的方式处理响应内容
+     *
+     * @param reqParam 请求参数
+     * @param consumer 响应内容处理器
+     * @return
+     */
+    public static <T> HttpResultDto invoke(HttpClientParam reqParam, HttpStreamConsumer<T> consumer) {
+        return HttpClientUtil.invoke(reqParam, RequestConfig.custom().build(), consumer);
+    }
+
+    /**
+     * 【基础】执行请求，并以流的方式处理响应内容<br>
+     * 1.响应内容不会整体读入内存，而是将响应输入流直接交给consumer处理，适用于大报文的增量解析（如JSON/XML流式解析）<br>
+     * 2.字符集只根据响应头和HttpClientParam.charset确定一次，见 {@link #resolveCharset(HttpEntity, HttpClientParam)}<br>
+     * 3.consumer的返回值设置到HttpResultDto.bizDataObj<br>
+     * 注：输入流只在consumer执行期间有效，consumer执行完成后会自动关闭输入流并释放连接<br>
+     * 注：consumer开始执行后请求失败（如读取响应时连接中断）不再按重试策略重试<br>
+     *
+     * @param reqParam  请求参数
+     * @param reqConfig 请求配置
+     * @param consumer  响应内容处理器
+     * @return
+     */
+    public static <T> HttpResultDto invoke(HttpClientParam reqParam, RequestConfig reqConfig, HttpStreamConsumer<T> consumer) {
+        // consumer开始处理响应内容后不再重试（consumer可能已产生副作用，重试会重复处理）
+        final boolean[] consumed = new boolean[1];
+        return HttpClientUtil.guard(reqParam, httpResultDto -> {
+            Args.notNull(consumer, "HttpStreamConsumer");
+            HttpClientUtil.execute(reqParam, reqConfig, httpResultDto, httpResponse -> {
+                if (!HttpClientUtil.checkStatus(httpResponse, httpResultDto)) {
+                    HttpLogger.logFailure(reqParam, httpResultDto);
+                    return httpResultDto;
+                }
+                HttpEntity entity = httpResponse.getEntity();
+                if (null == entity) {
+                    return httpResultDto;
+                }
+                Charset charset = HttpClientUtil.resolveCharset(entity, reqParam);
+                try (InputStream in = entity.getContent()) {
+                    consumed[0] = true;
+                    httpResultDto.setBizDataObj(consumer.consume(in, charset, httpResponse));
+                }
+                return httpResultDto;
+            });
+        }, () -> !consumed[0]);
+    }
+
+    /**
+     * 执行同步请求，并通过responseHandler处理响应
+     * 注：responseHandler执行完成后会自动关闭响应输入流并释放连接<br>
+     * 注：请求通过连接池对应的传输层发送，见 {@link HttpTransport}<br>
+     * 注：未显式设置代理时，从连接池的代理池中选择代理，见 {@link HttpProxyPool}
+     *
+     * @param reqParam        请求参数
+     * @param reqConfig       请求配置
+     * @param httpResultDto   请求结果（记录使用的代理地址）
+     * @param responseHandler 响应处理器
+     * @return
+     */
+    private static <T> T execute(HttpClientParam reqParam, RequestConfig reqConfig, HttpResultDto httpResultDto,
+                                 ResponseHandler<T> responseHandler) throws IOException {
+        Args.notBlank(reqParam.getRequesturi(), "request uri");
+
+        if (null == reqConfig) {
+            reqConfig = RequestConfig.custom().build();
+        }
+
+        // 通过连接池对应的传输层发送请求（默认为Apache HttpClient）
+        HttpTransport transport = HttpClientExecutorProvider.getTransport(reqParam, reqConfig);
+
+        HttpProxyPool.Lease proxyLease = HttpClientUtil.acquireProxy(reqParam, reqConfig);
+        if (null == proxyLease) {
+            HttpClientUtil.setProxyIp(reqConfig, httpResultDto);
+            return transport.execute(reqParam, reqConfig, responseHandler);
+        }
+        reqConfig = RequestConfig.copy(reqConfig).setProxy(proxyLease.getProxy()).build();
+        HttpClientUtil.setProxyIp(reqConfig, httpResultDto);
+        final int[] statusCode = new int[1];
+        // 已收到响应时记录响应内容的读取情况，用于区分网络异常与响应处理中的本地异常（如写文件失败）
+        final HttpReadTrackingEntity[] trackingEntity = new HttpReadTrackingEntity[1];
+        try {
+            T result = transport.execute(reqParam, reqConfig, httpResponse -> {
+                statusCode[0] = httpResponse.getStatusLine().getStatusCode();
+                if (null != httpResponse.getEntity()) {
+                    trackingEntity[0] = new HttpReadTrackingEntity(httpResponse.getEntity());
+                    httpResponse.setEntity(trackingEntity[0]);
+                }
+                return responseHandler.handleResponse(httpResponse);
+            });
+            proxyLease.complete(statusCode[0]);
+            return result;
+        } catch (IOException e) {
+            // 只有请求发送、接收响应及读取响应内容时的网络异常计为代理失败，对冲中被中止的请求不计为代理失败
+            boolean networkError = 0 == statusCode[0] || (null != trackingEntity[0] && trackingEntity[0].isReadFailed());
+            if (networkError && !HttpHedging.isAttemptCancelled()) {
+                proxyLease.fail();
+            }
+            throw e;
+        } finally {
+            // 非网络原因的异常（如响应处理异常、写文件失败）不计入代理的统计
+            proxyLease.cancel();
+        }
+    }
+
+    /**
+     * 从连接池的代理池中选择代理（已显式设置代理时不使用代理池）
+     *
+     * @return 未使用代理池或允许直连时返回null
+     * @throws HttpProxyUnavailableException 没有可用代理
+     */
+    private static HttpProxyPool.Lease acquireProxy(HttpClientParam reqParam, RequestConfig reqConfig) throws HttpProxyUnavailableException {
+        if (null != reqConfig.getProxy()) {
+            return null;
+        }
+        HttpProxyPool proxyPool = HttpClientExecutorProvider.getProxyPool(reqParam.getPoolName());
+        return null == proxyPool ? null : proxyPool.acquire();
+    }
+
+    private static void setProxyIp(RequestConfig reqConfig, HttpResultDto httpResultDto) {
+        if (null != reqConfig.getProxy()) {
+            httpResultDto.setProxyIp(reqConfig.getProxy().toHostString());
+        }
+    }
+
+    /**
+     * 【简易】异步执行指定请求方式的请求
+     *
+     * @param reqParam
+     * @return
+     */
+    public static CompletableFuture<HttpResultDto> invokeAsync(HttpClientParam reqParam) {
+        return HttpClientUtil.invokeAsync(reqParam, RequestConfig.custom().build());
+    }
+
+    /**
+     * 【基础】异步执行http和https请求<br>
+     * 1.基于NIO事件循环，等待响应期间不占用调用线程，适用于扇出调用多个慢接口的场景<br>
+     * 2.超时、代理、Cookie的处理方式与 {@link #invoke(HttpClientParam, RequestConfig)} 一致<br>
+     * 3.回调时恢复发起请求时的MDC内容，便于链路追踪<br>
+     * 4.响应处理（含输出文件）及CompletableFuture的完成在回调线程池中执行，调用方的后续阶段不会占用I/O分发线程，见 {@link HttpAsyncResponseCallback}<br>
+     * 注：响应内容会先完整读入内存再进行处理，下载大文件请使用同步方式<br>
+     * 注：取消返回的CompletableFuture会同时中止底层请求<br>
+     * 注：启用熔断器时，熔断或超过并发限制的请求直接返回REJECTED，见 {@link HttpCircuitBreakerRegistry}<br>
+     * 注：设置了HttpClientParam.hedgePolicy的GET/HEAD请求，超过对冲延迟未完成时发起对冲请求，见 {@link HttpHedging}<br>
+     * 注：异步请求使用独立的HttpAsyncClient，与同步请求 {@link #invoke(HttpClientParam, RequestConfig)} 相比，以下功能不生效：
+     * 重试策略（HttpRetryPolicy）、响应缓存（cacheEnabled）、请求体压缩及流量统计（requestCompression）、合并相同请求（singleFlight）、
+     * 传输层选择（transport）、DNS缓存（dnsCacheEnabled）<br>
+     *
+     * @param reqParam  请求参数
+     * @param reqConfig 请求配置
+     * @return 请求结果，不会以异常方式完成（异常信息转换为HttpResultDto的返回码）
+     */
+    public static CompletableFuture<HttpResultDto> invokeAsync(HttpClientParam reqParam, RequestConfig reqConfig) {
+        if (null != reqParam && HttpHedging.isApplicable(reqParam)) {
+            return HttpHedging.execute(reqParam, reqConfig);
+        }
+        return HttpClientUtil.executeAsync(reqParam, reqConfig, true);
+    }
+
+    /**
+     * 执行异步请求（不对冲）
+     *
+     * @param reqParam      请求参数
+     * @param reqConfig     请求配置
+     * @param recordLatency 是否记录请求耗时（对冲请求的耗时由HttpHedging按整体记录一次）
+     * @return
+     */
+    static CompletableFuture<HttpResultDto> executeAsync(HttpClientParam reqParam, RequestConfig reqConfig, boolean recordLatency) {
+        final CompletableFuture<HttpResultDto> resultFuture = new CompletableFuture<HttpResultDto>();
         try {
             Args.notBlank(reqParam.getRequesturi(), "request uri");
 
+            // 熔断或超过并发限制时直接返回REJECTED
+            final HttpCircuitBreaker breaker = HttpCircuitBreakerRegistry.getCircuitBreaker(reqParam);
+            if (null != breaker) {
+                String rejectReason = breaker.tryAcquire();
+                if (null != rejectReason) {
+                    resultFuture.complete(HttpClientUtil.rejected(reqParam, rejectReason));
+                    return resultFuture;
+                }
+                final long startTime = System.nanoTime();
+                resultFuture.whenComplete((httpResultDto, throwable) -> {
+                    if (resultFuture.isCancelled()) {
+                        breaker.onCancel();
+                    } else {
+                        breaker.onComplete(HttpClientUtil.isBreakerFailure(httpResultDto), System.nanoTime() - startTime);
+                    }
+                });
+            }
+
+            // 记录请求耗时（取消的请求不记录）
+            if (recordLatency) {
+                final long requestStartTime = System.nanoTime();
+                resultFuture.whenComplete((httpResultDto, throwable) -> {
+                    if (!resultFuture.isCancelled()) {
+                        HttpLatencyRecorder.record(reqParam, httpResultDto, System.nanoTime() - requestStartTime);
+                    }
+                });
+            }
+
             if (null == reqConfig) {
                 reqConfig = RequestConfig.custom().build();
             }
 
-            // get request by http method
-            String requesturi = reqParam.getRequesturi().trim();
-            if (reqParam.getMethod().equals(HttpMethod.POST.name())) {
-                request = Request.Post(requesturi);
-                // only post set request body
-                if (null != reqParam.getEntity()) {
-                    request.body(reqParam.getEntity());
-                }
-            } else if (reqParam.getMethod().equals(HttpMethod.PUT.name())) {
-                request = Request.Put(requesturi);
-            } else if (reqParam.getMethod().equals(HttpMethod.DELETE.name())) {
-                request = Request.Delete(requesturi);
-            } else if (reqParam.getMethod().equals(HttpMethod.TRACE.name())) {
-                request = Request.Trace(requesturi);
-            } else {
-                request = Request.Get(requesturi);
+            // 未显式设置代理时，从连接池的代理池中选择代理，请求完成后按结果归还
+            final HttpProxyPool.Lease proxyLease = HttpClientUtil.acquireProxy(reqParam, reqConfig);
+            if (null != proxyLease) {
+                reqConfig = RequestConfig.copy(reqConfig).setProxy(proxyLease.getProxy()).build();
+                resultFuture.whenComplete((httpResultDto, throwable) -> {
+                    if (resultFuture.isCancelled() || null == httpResultDto) {
+                        proxyLease.cancel();
+                    } else {
+                        proxyLease.complete(httpResultDto);
+                    }
+                });
             }
+            final String proxyIp = null == reqConfig.getProxy() ? null : reqConfig.getProxy().toHostString();
 
-            // set request headers
-            List<Header> headers = reqParam.getHeaders();
-            if (null != headers && headers.size() > 0) {
-                for (Header header : headers) {
-                    request.addHeader(header);
+            // 构建请求，每个请求使用独立的上下文（Cookie、认证信息）
+            RequestBuilder requestBuilder = HttpApacheTransport.buildRequest(reqParam, reqConfig);
+            HttpClientContext context = HttpApacheTransport.createContext(reqParam);
+
+            // 获取HttpAsyncClient连接池实例
+            CloseableHttpAsyncClient client = HttpAsyncClientProvider.getInstance(reqParam, reqConfig);
+
+            final Future<HttpResponse> future = client.execute(requestBuilder.build(), context,
+                    new HttpAsyncResponseCallback(reqParam, resultFuture, proxyIp));
+            resultFuture.whenComplete((httpResultDto, throwable) -> {
+                if (resultFuture.isCancelled()) {
+                    future.cancel(true);
                 }
+            });
+        } catch (Exception e) {
+            HttpResultDto httpResultDto = new HttpResultDto();
+            HttpClientUtil.handleException(reqParam, e, httpResultDto);
+            resultFuture.complete(httpResultDto);
+        }
+        return resultFuture;
+    }
+
+    /**
+     * 【简易】批量执行请求（不限制整体截止时间）
+     *
+     * @param reqParams   请求参数
+     * @param concurrency 最大并发数
+     * @return
+     */
+    public static HttpBatchResult invokeAll(Collection<HttpClientParam> reqParams, int concurrency) {
+        return HttpClientUtil.invokeAll(reqParams, RequestConfig.custom().build(), concurrency, 0);
+    }
+
+    /**
+     * 【基础】批量执行请求<br>
+     * 1.基于 {@link #invokeAsync(HttpClientParam, RequestConfig)} 发起请求，通过信号量限制同时进行中的请求数不超过concurrency，避免批量任务占满连接池<br>
+     * 2.每个请求的回调均恢复发起批量请求时的MDC内容，便于链路追踪<br>
+     * 3.超过整体截止时间后，不再发起新的请求，进行中的请求被中止，二者的返回码均为超时<br>
+     * 4.返回结果与入参顺序一致<br>
+     * 注：当前线程被中断时，进行中的请求被中止，未完成的请求返回码为失败<br>
+     * 注：请求通过异步客户端发送，重试策略、响应缓存、请求体压缩、合并相同请求等只对同步请求生效的功能不生效，
+     * 见 {@link #invokeAsync(HttpClientParam, RequestConfig)}；需要这些功能时，请使用同步方式并自行控制并发<br>
+     *
+     * @param reqParams   请求参数
+     * @param reqConfig   请求配置（所有请求共用）
+     * @param concurrency 最大并发数
+     * @param timeout     整体截止时间（单位：毫秒），小于等于0表示不限制
+     * @return
+     */
+    public static HttpBatchResult invokeAll(Collection<HttpClientParam> reqParams, RequestConfig reqConfig, int concurrency, long timeout) {
+        Args.notNull(reqParams, "HttpClientParam collection");
+        Args.positive(concurrency, "concurrency");
+        long startTime = System.currentTimeMillis();
+        long deadline = timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0;
+
+        List<HttpClientParam> paramList = new ArrayList<HttpClientParam>(reqParams);
+        List<CompletableFuture<HttpResultDto>> futures = new ArrayList<CompletableFuture<HttpResultDto>>(paramList.size());
+        final Semaphore semaphore = new Semaphore(concurrency);
+        boolean interrupted = false;
+        try {
+            for (HttpClientParam reqParam : paramList) {
+                if (deadline == 0) {
+                    semaphore.acquire();
+                } else if (!semaphore.tryAcquire(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+                CompletableFuture<HttpResultDto> future = HttpClientUtil.invokeAsync(reqParam, reqConfig);
+                future.whenComplete((httpResultDto, throwable) -> semaphore.release());
+                futures.add(future);
             }
-            // set timeout
-            request.connectTimeout(reqConfig.getConnectTimeout());
-            request.socketTimeout(reqConfig.getSocketTimeout());
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
 
-            // set proxy
-            if (null != reqConfig.getProxy()) {
-                request.viaProxy(reqConfig.getProxy());
+        HttpBatchResult batchResult = new HttpBatchResult();
+        List<HttpResultDto> results = new ArrayList<HttpResultDto>(paramList.size());
+        for (int i = 0; i < paramList.size(); i++) {
+            HttpResultDto httpResultDto;
+            if (i >= futures.size()) {
+                httpResultDto = interrupted ? batchResult(HttpResultDto.FAIL, "batch interrupted before request started")
+                        : batchResult(HttpResultDto.TIMEOUT, "batch deadline exceeded before request started");
+                batchResult.setNotStartedCount(batchResult.getNotStartedCount() + 1);
+            } else if (interrupted) {
+                httpResultDto = HttpClientUtil.cancelBatchItem(futures.get(i), HttpResultDto.FAIL, "batch interrupted");
+            } else {
+                try {
+                    CompletableFuture<HttpResultDto> future = futures.get(i);
+                    httpResultDto = deadline == 0 ? future.get()
+                            : future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    httpResultDto = HttpClientUtil.cancelBatchItem(futures.get(i), HttpResultDto.TIMEOUT, "batch deadline exceeded");
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    httpResultDto = HttpClientUtil.cancelBatchItem(futures.get(i), HttpResultDto.FAIL, "batch interrupted");
+                } catch (Exception e) {
+                    httpResultDto = batchResult(HttpResultDto.FAIL, e.getMessage());
+                }
             }
+            if (httpResultDto.isSuccess()) {
+                batchResult.setSuccessCount(batchResult.getSuccessCount() + 1);
+            } else if (httpResultDto.isTimeout()) {
+                batchResult.setTimeoutCount(batchResult.getTimeoutCount() + 1);
+            } else {
+                batchResult.setFailCount(batchResult.getFailCount() + 1);
+            }
+            results.add(httpResultDto);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
 
-            // 获取HttpClient连接池Executor实例
-            Executor executor = HttpClientExecutorProvider.getInstance(reqParam, reqConfig);
+        batchResult.setResults(results);
+        batchResult.setTotal(paramList.size());
+        batchResult.setConcurrency(concurrency);
+        batchResult.setElapsedTime(System.currentTimeMillis() - startTime);
+        return batchResult;
+    }
 
-            // set cookie
-            if (null != reqParam.getCookieStore()) {
-                executor.use(reqParam.getCookieStore());
-            }
+    /**
+     * 中止批量请求中未完成的请求，已完成的请求返回实际结果
+     */
+    private static HttpResultDto cancelBatchItem(CompletableFuture<HttpResultDto> future, String retCode, String retMsg) {
+        future.cancel(true);
+        if (future.isDone() && !future.isCancelled()) {
+            return future.join();
+        }
+        return batchResult(retCode, retMsg);
+    }
 
-            // 所有请求会使用一个公共的连接池，而且内容会立刻全部读出然后关闭inputsream，不需要再用代码去关闭。
-            Response response = executor.execute(request);
+    private static HttpResultDto batchResult(String retCode, String retMsg) {
+        HttpResultDto httpResultDto = new HttpResultDto();
+        httpResultDto.setRetCode(retCode);
+        httpResultDto.setRetMsg(retMsg);
+        return httpResultDto;
+    }
 
-            HttpResponse httpResponse = response.returnResponse();
-            StatusLine statusLine = httpResponse.getStatusLine();
-            if (statusLine.getStatusCode() < 200 || statusLine.getStatusCode() >= 400) {
-                httpResultDto.setRetCode(HttpResultDto.FAIL);
-                httpResultDto.setRetMsg(statusLine.getStatusCode() + " " + statusLine.getReasonPhrase());
-                return httpResultDto;
+    /**
+     * 处理响应内容（同步与异步请求共用）
+     *
+     * @param reqParam      请求参数
+     * @param httpResponse  响应
+     * @param httpResultDto 结果
+     */
+    static void handleResponse(HttpClientParam reqParam, HttpResponse httpResponse, HttpResultDto httpResultDto) throws IOException {
+        if (!HttpClientUtil.checkStatus(httpResponse, httpResultDto)) {
+            HttpLogger.logFailure(reqParam, httpResultDto);
+            return;
+        }
+
+        HttpEntity entity = httpResponse.getEntity();
+        String type = ContentType.getOrDefault(entity).getMimeType();
+
+        // ContentType为如下类型时，将响应内容作为字符串返回
+        if (ContentType.APPLICATION_JSON.getMimeType().equalsIgnoreCase(type)
+                || ContentType.APPLICATION_XML.getMimeType().equalsIgnoreCase(type)
+                || ContentType.TEXT_HTML.getMimeType().equalsIgnoreCase(type)
+                || ContentType.TEXT_PLAIN.getMimeType().equalsIgnoreCase(type)
+                || ContentType.TEXT_XML.getMimeType().equalsIgnoreCase(type)) {
+
+            // 字符集只确定一次，直接按该字符集解码，不再先按ISO-8859-1解码再重新编码转换
+            Charset charset = HttpClientUtil.resolveCharset(entity, reqParam);
+            String responseStr = HttpClientUtil.toString(entity, charset);
+            // 销毁
+            EntityUtils.consumeQuietly(entity);
+
+            HttpLogger.logSuccess(reqParam, type, "success", responseStr);
+            httpResultDto.setBizDataObj(responseStr);
+            return;
+        }
+
+        // get output file path
+        String outFilePath = reqParam.getOutFilePath();
+        if (StringUtils.isBlank(outFilePath)) {
+            String fileName = HttpClientUtil.getFileName(httpResponse);
+            if (StringUtils.isBlank(fileName)) {
+                fileName = UUID.randomUUID().toString();
             }
+            outFilePath = System.getProperty("java.io.tmpdir") + fileName;
+        }
+        HttpLogger.logSuccess(reqParam, type, "output file", outFilePath);
 
-            HttpEntity entity = httpResponse.getEntity();
-            String type = ContentType.getOrDefault(entity).getMimeType();
+        long startTime = System.currentTimeMillis();
+        long bytes = HttpClientUtil.transferToFile(outFilePath, entity.getContent());
+        long costTime = System.currentTimeMillis() - startTime;
+        HttpLogger.logSuccess(reqParam, type, "output file finish", outFilePath + ", bytes=" + bytes + ", costTime=" + costTime + "ms");
 
-            // ContentType为如下类型时，将响应内容作为字符串返回
-            if (ContentType.APPLICATION_JSON.getMimeType().equalsIgnoreCase(type)
-                    || ContentType.APPLICATION_XML.getMimeType().equalsIgnoreCase(type)
-                    || ContentType.TEXT_HTML.getMimeType().equalsIgnoreCase(type)
-                    || ContentType.TEXT_PLAIN.getMimeType().equalsIgnoreCase(type)
-                    || ContentType.TEXT_XML.getMimeType().equalsIgnoreCase(type)) {
+        httpResultDto.setResponseBytes(bytes);
+        httpResultDto.setTransferTime(costTime);
 
-                Charset charset = StringUtils.isNotBlank(reqParam.getCharset()) ? Charset.forName(reqParam.getCharset()) : null;
-                String responseStr = EntityUtils.toString(entity, charset);
+        httpResultDto.setSessionId(HttpClientUtil.getCookie(httpResponse));// 将响应对象中的Cookie内容写入sessionId
+        httpResultDto.setBizRetCode(HttpResultDto.RESPONSE_OUTPUT_TO_FILE);// 标志响应内容输出到文件
+        httpResultDto.setBizDataObj(outFilePath);// 文件路径
+    }
 
-                // 接口方的响应数据编码格式可能为ISO-8859-1和UTF-8（如大数据api），所以此处转为请求的编码格式(如默认编码格式UTF-8)，避免中文被编码的情况
-                ContentType contentType = ContentType.get(entity);
-                if (contentType != null && contentType.getCharset() != null && "ISO-8859-1".equals(contentType.getCharset().toString())) {
-                    responseStr = new String(responseStr.getBytes("ISO-8859-1"), charset);
-                }
-                // 销毁
-                EntityUtils.consumeQuietly(entity);
+    /**
+     * 校验响应状态码，状态码不为2xx和3xx时，设置失败信息到结果中
+     *
+     * @return true表示成功，false表示失败
+     */
+    static boolean checkStatus(HttpResponse httpResponse, HttpResultDto httpResultDto) {
+        StatusLine statusLine = httpResponse.getStatusLine();
+        httpResultDto.setStatusCode(statusLine.getStatusCode());
+        if (statusLine.getStatusCode() < 200 || statusLine.getStatusCode() >= 400) {
+            httpResultDto.setRetCode(HttpResultDto.FAIL);
+            httpResultDto.setRetMsg(statusLine.getStatusCode() + " " + statusLine.getReasonPhrase());
+            httpResultDto.setHeaderFields(HttpClientUtil.getHeaderFields(httpResponse));
+            return false;
+        }
+        return true;
+    }
 
-                LOGGER.info("[HttpClientUtil.invoke][" + type + "][success]" + responseStr);
-                httpResultDto.setBizDataObj(responseStr);
-                return httpResultDto;
+    /**
+     * 获取响应头属性
+     */
+    private static Map<String, List<String>> getHeaderFields(HttpResponse httpResponse) {
+        Map<String, List<String>> headerFields = new LinkedHashMap<String, List<String>>();
+        for (Header header : httpResponse.getAllHeaders()) {
+            List<String> values = headerFields.get(header.getName());
+            if (null == values) {
+                values = new ArrayList<String>(1);
+                headerFields.put(header.getName(), values);
             }
+            values.add(header.getValue());
+        }
+        return headerFields;
+    }
 
-            // get output file path
-            String outFilePath = reqParam.getOutFilePath();
-            if (StringUtils.isBlank(outFilePath)) {
-                String fileName = HttpClientUtil.getFileName(httpResponse);
-                if (StringUtils.isBlank(fileName)) {
-                    fileName = UUID.randomUUID().toString();
-                }
-                outFilePath = System.getProperty("java.io.tmpdir") + fileName;
+    /**
+     * 确定响应内容的字符集<br>
+     * 1.响应头中指定了字符集且不为ISO-8859-1时，使用响应头中的字符集<br>
+     * 2.接口方的响应数据编码格式可能为ISO-8859-1和UTF-8（如大数据api），响应头中为ISO-8859-1或未指定时，使用请求的编码格式(如默认编码格式UTF-8)，避免中文被编码的情况<br>
+     * 3.以上都未指定时，使用ContentType对应的默认字符集，最后使用HTTP协议默认的ISO-8859-1<br>
+     *
+     * @param entity   响应实体
+     * @param reqParam 请求参数
+     * @return
+     */
+    public static Charset resolveCharset(HttpEntity entity, HttpClientParam reqParam) {
+        ContentType contentType = ContentType.get(entity);
+        Charset headerCharset = null != contentType ? contentType.getCharset() : null;
+        if (null != headerCharset && !StandardCharsets.ISO_8859_1.equals(headerCharset)) {
+            return headerCharset;
+        }
+        if (null != reqParam && StringUtils.isNotBlank(reqParam.getCharset())) {
+            return Charset.forName(reqParam.getCharset());
+        }
+        if (null != headerCharset) {
+            return headerCharset;
+        }
+        if (null != contentType) {
+            ContentType defaultContentType = ContentType.getByMimeType(contentType.getMimeType());
+            if (null != defaultContentType && null != defaultContentType.getCharset()) {
+                return defaultContentType.getCharset();
             }
-            LOGGER.info("[HttpClientUtil.invoke][" + type + "][output file]" + outFilePath);
+        }
+        return HTTP.DEF_CONTENT_CHARSET;
+    }
 
-            HttpClientUtil.outputFile(outFilePath, entity.getContent());
+    /**
+     * 按指定字符集将响应内容读取为字符串（与EntityUtils.toString不同，不会优先使用响应头中的字符集）
+     */
+    private static String toString(HttpEntity entity, Charset charset) throws IOException {
+        try (InputStream in = entity.getContent()) {
+            if (null == in) {
+                return null;
+            }
+            int capacity = (int) entity.getContentLength();
+            if (capacity < 0) {
+                capacity = 4096;
+            }
+            Reader reader = new InputStreamReader(in, charset);
+            CharArrayBuffer buffer = new CharArrayBuffer(capacity);
+            char[] tmp = new char[1024];
+            int len;
+            while ((len = reader.read(tmp)) != -1) {
+                buffer.append(tmp, 0, len);
+            }
+            return buffer.toString();
+        }
+    }
 
-            httpResultDto.setSessionId(HttpClientUtil.getCookie(httpResponse));// 将响应对象中的Cookie内容写入sessionId
-            httpResultDto.setBizRetCode(HttpResultDto.RESPONSE_OUTPUT_TO_FILE);// 标志响应内容输出到文件
-            httpResultDto.setBizDataObj(outFilePath);// 文件路径
-        } catch (SocketTimeoutException e) {
+    /**
+     * 处理请求异常（同步与异步请求共用）
+     *
+     * @param reqParam      请求参数
+     * @param e             异常
+     * @param httpResultDto 结果
+     */
+    static void handleException(HttpClientParam reqParam, Exception e, HttpResultDto httpResultDto) {
+        if (HttpHedging.isAttemptCancelled()) {
+            // 对冲中另一个请求已先返回，本请求被中止，不输出日志
+            httpResultDto.setRetCode(HttpResultDto.FAIL);
+            httpResultDto.setRetMsg("request cancelled");
+            return;
+        }
+        if (e instanceof HttpProxyUnavailableException) {
+            // 代理池中没有可用的代理，请求未发出
+            httpResultDto.setRetCode(HttpResultDto.REJECTED);
+            httpResultDto.setRetMsg(e.getMessage());
+            LOGGER.warn("[HttpClientUtil.invoke][" + reqParam.getMethod() + "][" + reqParam.getRequesturi() + "] request rejected, " + e.getMessage());
+            return;
+        }
+        if (e instanceof SocketTimeoutException || e instanceof ConnectTimeoutException) {
             // 超时（含连接超时、读取超时两种情况）
             httpResultDto.setRetCode(HttpResultDto.TIMEOUT);
             httpResultDto.setRetMsg(e.getMessage());
-        } catch (Exception e) {
-            httpResultDto.setRetCode(HttpResultDto.FAIL);
-            httpResultDto.setRetMsg(e.getMessage());
-            LOGGER.error("[HttpClientUtil.invoke][" + reqParam.getMethod() + "]["
-                    + reqParam.getRequesturi() + "] request exception", e);
+            HttpLogger.logTimeout(reqParam, e);
+            return;
         }
-        return httpResultDto;
+        httpResultDto.setRetCode(HttpResultDto.FAIL);
+        httpResultDto.setRetMsg(e.getMessage());
+        LOGGER.error("[HttpClientUtil.invoke][" + reqParam.getMethod() + "]["
+                + reqParam.getRequesturi() + "] request exception", e);
     }
 
     /**
@@ -383,10 +948,21 @@ public class HttpClientUtil {
      */
     public static void outputFile(String filePath, InputStream is)
             throws IOException, FileNotFoundException {
-        File outFile = new File(filePath);
-        if (outFile.exists()) {
-            outFile.delete();
-        }
+        HttpClientUtil.transferToFile(filePath, is);
+    }
+
+    /**
+     * 输出文件，并返回写入的字节数<br>
+     * 1.先写入同目录下的临时文件，完成后原子重命名为目标文件，避免下载中途失败时留下不完整的文件，或被其他进程读到写了一半的文件<br>
+     * 2.通过FileChannel写入，每次读写使用线程内复用的64KB缓冲区（原为每次512字节），大幅减少系统调用次数<br>
+     * 注：数据源为socket输入流而非Channel，FileChannel.transferFrom对非FileChannel数据源内部仍是8KB分段拷贝，所以此处使用更大的复用缓冲区<br>
+     *
+     * @param filePath 文件保存的全路径
+     * @param is       输入流，方法结束时关闭
+     * @return 写入的字节数
+     */
+    public static long transferToFile(String filePath, InputStream is) throws IOException {
+        File outFile = new File(filePath).getAbsoluteFile();
         File parentFile = outFile.getParentFile();
         if (!parentFile.exists()) {
             parentFile.mkdirs();
@@ -396,21 +972,37 @@ public class HttpClientUtil {
             parentFile.setReadable(true, false);
             parentFile.setWritable(true, false);
         }
-        outFile.createNewFile();
+
+        Path tmpPath = new File(parentFile, "." + outFile.getName() + "." + UUID.randomUUID().toString() + ".tmp").toPath();
+        long total = 0;
+        try {
+            // 输出到临时文件
+            try (InputStream in = is;
+                 FileChannel channel = FileChannel.open(tmpPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                byte[] byteArr = TRANSFER_BUFFER.get();
+                ByteBuffer buffer = ByteBuffer.wrap(byteArr);
+                int len;
+                while ((len = in.read(byteArr)) != -1) {
+                    buffer.clear().limit(len);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    total += len;
+                }
+            }
+            // 原子重命名为目标文件（文件系统不支持原子移动时，退化为覆盖移动）
+            try {
+                Files.move(tmpPath, outFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpPath, outFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmpPath);
+        }
         parentFile.setExecutable(false, false);
         parentFile.setReadable(true, false);
         parentFile.setWritable(true, false);
-
-        // 输出文件
-        FileOutputStream os = new FileOutputStream(outFile);
-        byte[] byteArr = new byte[512];
-        int len = 0;
-        while ((len = is.read(byteArr)) != -1) {
-            os.write(byteArr, 0, len);
-        }
-        os.flush();
-        os.close();
-        is.close();
+        return total;
     }
 
 }
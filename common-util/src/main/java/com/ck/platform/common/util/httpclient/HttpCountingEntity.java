@@ -0,0 +1,86 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 统计字节数的实体包装（边读边统计，不缓冲内容）<br>
+ * 响应实体统计读取的字节数（getContent），请求实体统计写出的字节数（writeTo）
+ *
+ * @author chenck
+ * @date 2026/10/18 21:15
+ */
+class HttpCountingEntity extends HttpEntityWrapper {
+
+    private final LongAdder counter;
+
+    HttpCountingEntity(HttpEntity entity, LongAdder counter) {
+        super(entity);
+        this.counter = counter;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new FilterInputStream(wrappedEntity.getContent()) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    counter.increment();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n > 0) {
+                    counter.add(n);
+                }
+                return n;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                long skipped = super.skip(n);
+                if (skipped > 0) {
+                    counter.add(skipped);
+                }
+                return skipped;
+            }
+        };
+    }
+
+    /**
+     * 按被包装实体写出的字节数统计（压缩实体不支持getContent，请求体通过此方法写出）
+     */
+    @Override
+    public void writeTo(OutputStream outstream) throws IOException {
+        wrappedEntity.writeTo(new FilterOutputStream(outstream) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                counter.increment();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                counter.add(len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                // 不关闭底层输出流，由调用方负责
+                flush();
+            }
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.Args;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * 以deflate（zlib格式）压缩请求体的实体包装，写出时边读边压缩（与 {@link org.apache.http.client.entity.GzipCompressingEntity} 对应）<br>
+ * 注：getContent将压缩后的内容缓冲到内存后返回，供需要读取请求体的场景（如日志、签名）使用
+ *
+ * @author chenck
+ * @date 2026/10/18 21:10
+ */
+class HttpDeflateCompressingEntity extends HttpEntityWrapper {
+
+    private static final String DEFLATE_CODEC = "deflate";
+
+    HttpDeflateCompressingEntity(HttpEntity entity) {
+        super(entity);
+    }
+
+    @Override
+    public Header getContentEncoding() {
+        return new BasicHeader("Content-Encoding", DEFLATE_CODEC);
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isChunked() {
+        // 压缩后的长度未知，使用分块传输
+        return true;
+    }
+
+    /**
+     * 将压缩后的内容读入内存缓冲区后返回（发送请求时使用 {@link #writeTo(OutputStream)} 边读边压缩，不经过此方法）<br>
+     * 注：原实体不可重复读取时，调用后不能再通过writeTo写出
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        writeTo(buffer);
+        return new ByteArrayInputStream(buffer.toByteArray());
+    }
+
+    @Override
+    public void writeTo(final OutputStream outstream) throws IOException {
+        Args.notNull(outstream, "Output stream");
+        final DeflaterOutputStream deflater = new DeflaterOutputStream(outstream);
+        wrappedEntity.writeTo(deflater);
+        // 只结束压缩流，不关闭底层输出流
+        deflater.finish();
+    }
+}
@@ -0,0 +1,61 @@
+package com.ck.platform.common.util.httpclient;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * 对冲请求策略<br>
+ * 第一次请求超过对冲延迟仍未完成时，使用另一个连接发起第二次请求，取先成功的结果，并中止另一个请求<br>
+ * 1.对冲延迟：已采集的耗时样本数达到minSamples时，取耗时的percentile百分位值，否则使用固定的delay<br>
+ * 2.对冲预算：每个请求积累budgetRatio个令牌，每次对冲消耗1个令牌，令牌不足时不对冲，避免故障期间请求量翻倍<br>
+ * 注：只对幂等的GET/HEAD请求生效<br>
+ * 注：同一接口的对冲策略变更后，按新策略重建对冲预算<br>
+ * 支持链式调用<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 20:10
+ */
+@Data
+@Accessors(chain = true)
+@NoArgsConstructor(staticName = "of")
+public class HttpHedgePolicy {
+
+    /**
+     * 固定对冲延迟，单位毫秒
+     */
+    private long delay = 100;
+    /**
+     * 按耗时百分位计算对冲延迟，如0.95，小于等于0时只使用固定延迟
+     */
+    private double percentile = 0.95D;
+    /**
+     * 按百分位计算对冲延迟所需的最少样本数
+     */
+    private int minSamples = 100;
+    /**
+     * 对冲延迟的下限，单位毫秒
+     */
+    private long minDelay = 10;
+    /**
+     * 对冲比例上限，如0.05表示对冲请求数不超过请求总数的5%
+     */
+    private double budgetRatio = 0.05D;
+    /**
+     * 对冲令牌的最大积累数量（允许短时突发的对冲数）
+     */
+    private int budgetBurst = 10;
+
+    /**
+     * 复制策略（对冲状态持有副本，用于判断策略是否变更）
+     */
+    public HttpHedgePolicy copy() {
+        return HttpHedgePolicy.of()
+                .setDelay(delay)
+                .setPercentile(percentile)
+                .setMinSamples(minSamples)
+                .setMinDelay(minDelay)
+                .setBudgetRatio(budgetRatio)
+                .setBudgetBurst(budgetBurst);
+    }
+}
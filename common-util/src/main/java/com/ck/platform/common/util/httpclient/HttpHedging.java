@@ -0,0 +1,482 @@
+package com.ck.platform.common.util.httpclient;
+
+import com.ck.platform.common.util.httpclient.metrics.HttpLatencyHistogram;
+import com.ck.platform.common.util.httpclient.metrics.HttpLatencyRecorder;
+import com.ck.platform.common.util.pool.MdcUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.concurrent.Cancellable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 对冲请求，用于降低幂等请求的长尾耗时，见 {@link HttpHedgePolicy}<br>
+ * 耗时样本和对冲预算按接口隔离：优先使用HttpClientParam.apiName，未设置时使用请求的主机地址<br>
+ * 1.同步请求（invoke）：第一次请求在调用线程中执行，对冲请求在对冲线程池中执行，两次请求均经过同步请求的完整流程
+ * （熔断、重试策略、代理池、传输层、响应缓存、请求体压缩等），先成功的请求返回后中止另一个请求<br>
+ * 2.异步请求（invokeAsync）：两次请求均为异步请求，先成功的请求返回后取消另一个请求<br>
+ * 3.每次请求（含失败、被中止的请求）的耗时均计入耗时样本，耗时百分位按时间窗口（默认1分钟）重新计算，接口耗时变化后对冲延迟随之调整<br>
+ * 4.接口的对冲策略变更后，按新策略重建对冲预算（保留耗时样本）<br>
+ * 5.HttpLatencyRecorder按调用方等待的时间（从第一次请求发起到返回结果）记录一次耗时，不按单次请求记录<br>
+ * 注：接口数量达到上限（默认10000）时，先清除闲置的对冲状态，仍超出时新接口共用一个对冲状态<br>
+ * 注：jdk传输层在JDK 11~15下中止请求只会结束等待，底层的HTTP/2 stream仍会读取完成
+ *
+ * @author chenck
+ * @date 2026/10/18 20:15
+ */
+public class HttpHedging {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(HttpHedging.class);
+
+    private static final ConcurrentHashMap<String, HedgeState> STATE_MAP = new ConcurrentHashMap<String, HedgeState>();
+    private static final ScheduledExecutorService TIMER = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("http-hedge-timer"));
+    /**
+     * 同步对冲请求的执行线程池（对冲请求受对冲预算限制，线程数随对冲并发数伸缩）
+     */
+    private static final ThreadPoolExecutor HEDGE_EXECUTOR = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<Runnable>(), new DaemonThreadFactory("http-hedge-"));
+    /**
+     * 当前线程正在执行的同步对冲请求（第一次请求或对冲请求）
+     */
+    private static final ThreadLocal<SyncAttempt> CURRENT_ATTEMPT = new ThreadLocal<SyncAttempt>();
+    /**
+     * 耗时百分位的统计窗口，单位毫秒
+     */
+    private static final long WINDOW_MILLIS = 60 * 1000;
+    /**
+     * 接口数量超出上限时共用的对冲状态
+     */
+    private static volatile HedgeState overflowState;
+    private static final AtomicLong LAST_EVICT_TIME = new AtomicLong();
+    private static volatile int maxStates = 10000;
+    private static volatile long idleTimeout = 10 * 60 * 1000;
+    /**
+     * 发起的对冲请求数
+     */
+    private static final LongAdder HEDGE_COUNT = new LongAdder();
+    /**
+     * 对冲请求先于第一次请求成功的次数
+     */
+    private static final LongAdder HEDGE_WIN_COUNT = new LongAdder();
+    /**
+     * 因预算不足未发起对冲的次数
+     */
+    private static final LongAdder BUDGET_EXHAUSTED_COUNT = new LongAdder();
+
+    private HttpHedging() {
+    }
+
+    /**
+     * 判断请求是否可对冲
+     */
+    static boolean isApplicable(HttpClientParam reqParam) {
+        if (null == reqParam.getHedgePolicy() || StringUtils.isNotBlank(reqParam.getOutFilePath())) {
+            return false;
+        }
+        String method = reqParam.getMethod();
+        return HttpMethod.GET.name().equals(method) || HttpMethod.HEAD.name().equals(method);
+    }
+
+    /**
+     * 执行异步对冲请求
+     *
+     * @param reqParam  请求参数
+     * @param reqConfig 请求配置
+     * @return 先成功的请求结果；均失败时为最后完成的请求结果
+     */
+    static CompletableFuture<HttpResultDto> execute(final HttpClientParam reqParam, final RequestConfig reqConfig) {
+        return HttpHedging.hedge(reqParam, HttpClientUtil.executeAsync(reqParam, reqConfig, false),
+                () -> HttpClientUtil.executeAsync(reqParam, reqConfig, false));
+    }
+
+    /**
+     * 执行同步对冲请求：第一次请求在调用线程中执行，对冲请求在对冲线程池中执行<br>
+     * 注：先成功的请求返回后中止另一个请求，调用线程中的第一次请求被中止后即返回
+     *
+     * @param reqParam 请求参数
+     * @param call     单次同步请求（含熔断、重试）
+     * @return 先成功的请求结果；均失败时为最后完成的请求结果
+     */
+    static HttpResultDto executeSync(final HttpClientParam reqParam, final Supplier<HttpResultDto> call) {
+        SyncAttempt primary = new SyncAttempt(call);
+        CompletableFuture<HttpResultDto> resultFuture = HttpHedging.hedge(reqParam, primary, () -> {
+            SyncAttempt hedge = new SyncAttempt(call);
+            try {
+                HEDGE_EXECUTOR.execute(hedge);
+            } catch (RejectedExecutionException e) {
+                hedge.cancel(false);
+            }
+            return hedge;
+        });
+        primary.run();
+        return resultFuture.join();
+    }
+
+    private static CompletableFuture<HttpResultDto> hedge(HttpClientParam reqParam, CompletableFuture<HttpResultDto> primary,
+                                                          Supplier<CompletableFuture<HttpResultDto>> hedgeLauncher) {
+        final HedgeState state = HttpHedging.getState(reqParam);
+        state.onRequest();
+
+        final CompletableFuture<HttpResultDto> resultFuture = new CompletableFuture<HttpResultDto>();
+        final AtomicReferenceArray<CompletableFuture<HttpResultDto>> attempts = new AtomicReferenceArray<CompletableFuture<HttpResultDto>>(2);
+        final AtomicInteger pending = new AtomicInteger(1);
+        final Map<String, String> contextMap = MDC.getCopyOfContextMap();
+        final long startTime = System.nanoTime();
+
+        attempts.set(0, primary);
+        HttpHedging.onAttempt(state, resultFuture, pending, primary, false);
+
+        final ScheduledFuture<?> timer = TIMER.schedule(() -> {
+            if (resultFuture.isDone()) {
+                return;
+            }
+            if (!state.tryAcquireBudget()) {
+                BUDGET_EXHAUSTED_COUNT.increment();
+                return;
+            }
+            HEDGE_COUNT.increment();
+            pending.incrementAndGet();
+            // 对冲请求在定时线程中发起，恢复调用方的MDC内容
+            Map<String, String> oldContext = MdcUtil.beforeExecution(contextMap);
+            try {
+                CompletableFuture<HttpResultDto> hedge = hedgeLauncher.get();
+                attempts.set(1, hedge);
+                HttpHedging.onAttempt(state, resultFuture, pending, hedge, true);
+                if (resultFuture.isDone()) {
+                    hedge.cancel(true);
+                }
+            } finally {
+                MdcUtil.afterExecution(oldContext);
+            }
+        }, state.getDelay(), TimeUnit.MILLISECONDS);
+
+        resultFuture.whenComplete((httpResultDto, throwable) -> {
+            timer.cancel(false);
+            // 按调用方等待的时间记录一次请求耗时（各次请求不单独记录，避免低估长尾耗时）
+            if (!resultFuture.isCancelled()) {
+                HttpLatencyRecorder.record(reqParam, httpResultDto, System.nanoTime() - startTime);
+            }
+            // 中止未完成的请求（已完成的请求取消无影响）
+            for (int i = 0; i < attempts.length(); i++) {
+                CompletableFuture<HttpResultDto> attempt = attempts.get(i);
+                if (null != attempt) {
+                    attempt.cancel(true);
+                }
+            }
+        });
+        return resultFuture;
+    }
+
+    /**
+     * 监听单次请求的结果：记录耗时样本（被中止的请求记录中止前的耗时），并汇总到对冲结果
+     */
+    private static void onAttempt(HedgeState state, CompletableFuture<HttpResultDto> resultFuture, AtomicInteger pending,
+                                  CompletableFuture<HttpResultDto> attempt, boolean hedged) {
+        final long startTime = System.nanoTime();
+        attempt.whenComplete((httpResultDto, throwable) -> {
+            if (null == httpResultDto || !httpResultDto.isRejected()) {
+                state.record(System.nanoTime() - startTime);
+            }
+            HttpHedging.onAttemptComplete(resultFuture, pending, httpResultDto, hedged);
+        });
+    }
+
+    private static void onAttemptComplete(CompletableFuture<HttpResultDto> resultFuture, AtomicInteger pending,
+                                          HttpResultDto httpResultDto, boolean hedged) {
+        int left = pending.decrementAndGet();
+        if (null == httpResultDto) {
+            // 请求被取消
+            httpResultDto = new HttpResultDto();
+            httpResultDto.setRetCode(HttpResultDto.FAIL);
+            httpResultDto.setRetMsg("request cancelled");
+        }
+        if (httpResultDto.isSuccess()) {
+            if (resultFuture.complete(httpResultDto) && hedged) {
+                HEDGE_WIN_COUNT.increment();
+            }
+        } else if (left == 0) {
+            // 没有进行中的请求时，返回失败结果
+            resultFuture.complete(httpResultDto);
+        }
+    }
+
+    /**
+     * 获取接口的对冲状态，对冲策略变更时按新策略重建
+     */
+    private static HedgeState getState(HttpClientParam reqParam) {
+        HttpHedgePolicy policy = reqParam.getHedgePolicy();
+        String key = String.valueOf(StringUtils.isNotBlank(reqParam.getApiName()) ? reqParam.getApiName() : HttpLibs.getHost(reqParam.getRequesturi()));
+        HedgeState state = STATE_MAP.get(key);
+        if (null != state && state.matches(policy)) {
+            state.lastAccessTime = System.currentTimeMillis();
+            return state;
+        }
+        if (null == state && !HttpHedging.ensureCapacity()) {
+            return HttpHedging.getOverflowState(policy);
+        }
+        return STATE_MAP.compute(key, (k, old) -> null != old && old.matches(policy) ? old : new HedgeState(policy, old));
+    }
+
+    private static HedgeState getOverflowState(HttpHedgePolicy policy) {
+        HedgeState state = overflowState;
+        if (null == state || !state.matches(policy)) {
+            state = new HedgeState(policy, state);
+            overflowState = state;
+        }
+        return state;
+    }
+
+    /**
+     * 对冲状态数量达到上限时清除闲置的对冲状态（最多每秒清除一次）
+     *
+     * @return false表示清除后仍达到上限
+     */
+    private static boolean ensureCapacity() {
+        if (STATE_MAP.size() < maxStates) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        long lastEvictTime = LAST_EVICT_TIME.get();
+        if (now - lastEvictTime >= 1000 && LAST_EVICT_TIME.compareAndSet(lastEvictTime, now)) {
+            STATE_MAP.entrySet().removeIf(entry -> now - entry.getValue().lastAccessTime >= idleTimeout);
+            if (STATE_MAP.size() >= maxStates) {
+                LOGGER.warn("[HttpHedging] hedge state count reached the limit " + maxStates + ", new keys will share one hedge state");
+            }
+        }
+        return STATE_MAP.size() < maxStates;
+    }
+
+    /**
+     * 当前线程是否在执行同步对冲请求（第一次请求或对冲请求）
+     */
+    static boolean isHedgeAttempt() {
+        return null != CURRENT_ATTEMPT.get();
+    }
+
+    /**
+     * 当前线程执行的同步对冲请求是否已被中止（另一个请求已先返回）
+     */
+    static boolean isAttemptCancelled() {
+        SyncAttempt attempt = CURRENT_ATTEMPT.get();
+        return null != attempt && attempt.isCancelled();
+    }
+
+    /**
+     * 传输层发送同步请求前登记中止方式，当前线程执行的对冲请求被中止时，通过cancellable中止底层请求<br>
+     * 注：请求已被中止时立即执行cancellable；不在对冲请求中时忽略
+     *
+     * @param cancellable 中止底层请求
+     */
+    static void registerAbort(Cancellable cancellable) {
+        SyncAttempt attempt = CURRENT_ATTEMPT.get();
+        if (null != attempt) {
+            attempt.setCancellable(cancellable);
+        }
+    }
+
+    /**
+     * 设置对冲状态（按接口）的数量上限，默认10000
+     */
+    public static void setMaxStates(int maxStates) {
+        if (maxStates <= 0) {
+            throw new IllegalArgumentException("maxStates should be greater than 0");
+        }
+        HttpHedging.maxStates = maxStates;
+    }
+
+    /**
+     * 设置闲置对冲状态的清除时长，单位毫秒，默认10分钟
+     */
+    public static void setIdleTimeout(long idleTimeout) {
+        if (idleTimeout <= 0) {
+            throw new IllegalArgumentException("idleTimeout should be greater than 0");
+        }
+        HttpHedging.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * 发起的对冲请求数（累计值）
+     */
+    public static long getHedgeCount() {
+        return HEDGE_COUNT.sum();
+    }
+
+    /**
+     * 对冲请求先于第一次请求成功的次数（累计值）
+     */
+    public static long getHedgeWinCount() {
+        return HEDGE_WIN_COUNT.sum();
+    }
+
+    /**
+     * 因预算不足未发起对冲的次数（累计值）
+     */
+    public static long getBudgetExhaustedCount() {
+        return BUDGET_EXHAUSTED_COUNT.sum();
+    }
+
+    /**
+     * 获取指定接口当前的对冲延迟，单位毫秒
+     *
+     * @param key apiName或主机地址
+     * @return 不存在时返回-1
+     */
+    public static long getDelay(String key) {
+        HedgeState state = STATE_MAP.get(key);
+        return null == state ? -1 : state.getDelay();
+    }
+
+    /**
+     * 同步对冲请求：在调用线程或对冲线程池中执行单次同步请求，取消时通过传输层登记的cancellable中止底层请求
+     */
+    private static class SyncAttempt extends CompletableFuture<HttpResultDto> implements Runnable {
+
+        private final Supplier<HttpResultDto> call;
+        private final Map<String, String> contextMap;
+        private volatile Cancellable cancellable;
+
+        SyncAttempt(Supplier<HttpResultDto> call) {
+            this.call = call;
+            this.contextMap = MDC.getCopyOfContextMap();
+        }
+
+        @Override
+        public void run() {
+            if (isDone()) {
+                return;
+            }
+            Map<String, String> oldContext = MdcUtil.beforeExecution(contextMap);
+            CURRENT_ATTEMPT.set(this);
+            try {
+                complete(call.get());
+            } catch (Throwable e) {
+                completeExceptionally(e);
+            } finally {
+                CURRENT_ATTEMPT.remove();
+                MdcUtil.afterExecution(oldContext);
+            }
+        }
+
+        void setCancellable(Cancellable cancellable) {
+            this.cancellable = cancellable;
+            if (isCancelled()) {
+                cancellable.cancel();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Cancellable current = this.cancellable;
+            if (cancelled && null != current) {
+                current.cancel();
+            }
+            return cancelled;
+        }
+    }
+
+    /**
+     * 接口的对冲状态：耗时样本及对冲预算
+     */
+    private static class HedgeState {
+
+        /**
+         * 对冲策略（创建时的副本）
+         */
+        private final HttpHedgePolicy policy;
+        /**
+         * 对冲预算
+         */
+        private final HttpTokenBudget budget;
+        /**
+         * 当前窗口的请求耗时（单位：微秒）
+         */
+        private volatile HttpLatencyHistogram histogram = new HttpLatencyHistogram();
+        private volatile long windowStartTime = System.currentTimeMillis();
+        /**
+         * 上一个样本数足够的窗口计算出的对冲延迟，单位毫秒，小于0表示尚未计算
+         */
+        private volatile long windowDelay = -1;
+        private volatile long lastAccessTime = System.currentTimeMillis();
+
+        /**
+         * @param policy 对冲策略
+         * @param old    策略变更前的对冲状态，沿用其耗时样本
+         */
+        HedgeState(HttpHedgePolicy policy, HedgeState old) {
+            this.policy = policy.copy();
+            this.budget = new HttpTokenBudget(policy.getBudgetRatio(), policy.getBudgetBurst());
+            if (null != old) {
+                this.histogram = old.histogram;
+                this.windowStartTime = old.windowStartTime;
+                this.windowDelay = old.windowDelay;
+            }
+        }
+
+        boolean matches(HttpHedgePolicy policy) {
+            return this.policy.equals(policy);
+        }
+
+        void onRequest() {
+            budget.onRequest();
+        }
+
+        boolean tryAcquireBudget() {
+            return budget.tryAcquire();
+        }
+
+        void record(long elapsedNanos) {
+            histogram.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        }
+
+        long getDelay() {
+            long delay = policy.getDelay();
+            if (policy.getPercentile() > 0) {
+                rotate();
+                HttpLatencyHistogram current = histogram;
+                if (windowDelay >= 0) {
+                    delay = windowDelay;
+                } else if (current.getCount() >= policy.getMinSamples()) {
+                    delay = TimeUnit.MICROSECONDS.toMillis(current.getValueAtPercentile(policy.getPercentile()));
+                }
+            }
+            return Math.max(delay, policy.getMinDelay());
+        }
+
+        /**
+         * 窗口结束且样本数足够时，按当前窗口计算对冲延迟并开始新的窗口
+         */
+        private void rotate() {
+            long now = System.currentTimeMillis();
+            HttpLatencyHistogram current = histogram;
+            if (now - windowStartTime < WINDOW_MILLIS || current.getCount() < policy.getMinSamples()) {
+                return;
+            }
+            synchronized (this) {
+                if (current != histogram) {
+                    return;
+                }
+                windowDelay = TimeUnit.MICROSECONDS.toMillis(current.getValueAtPercentile(policy.getPercentile()));
+                histogram = new HttpLatencyHistogram();
+                windowStartTime = now;
+            }
+        }
+    }
+}
@@ -9,17 +9,16 @@
 package com.ck.platform.common.util.httpclient;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHost;
 import org.apache.http.NameValuePair;
+import org.apache.http.client.utils.URIUtils;
 import org.apache.http.message.BasicNameValuePair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
-import java.net.URLEncoder;
-import java.text.MessageFormat;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -102,13 +101,14 @@ public class HttpLibs {
     /**
      * 组装请求URL<br>
      * 按照格式化方式构建，如https://test.com/page?appid={0}&code={1}<br>
+     * 注：基于预编译的URL模板渲染，参数值按所在的URI组成部分进行百分号编码，见 {@link HttpUrlTemplate}<br>
      *
      * @author chenck
      * @date 2016年12月23日 下午8:12:36
      */
     public static String buildRequestURL(List<Object> params, String actionURL) {
         if (null != params && params.size() > 0) {
-            return MessageFormat.format(actionURL, params.toArray());
+            return HttpUrlTemplate.compile(actionURL).render(params);
         } else {
             return actionURL;
         }
@@ -161,7 +161,26 @@ public class HttpLibs {
     }
 
     /**
-     * 将URL返回的字符串解析成Map, 解析的字符串格式：a=a&b=b&c=c
+     * 获取请求地址的主机部分，如 https://api.test.com/a?b=1 返回 https://api.test.com
+     *
+     * @param url 请求地址
+     * @return 地址不合法或不包含主机时返回null
+     */
+    public static String getHost(String url) {
+        if (StringUtils.isBlank(url)) {
+            return null;
+        }
+        try {
+            HttpHost host = URIUtils.extractHost(URI.create(url.trim()));
+            return null == host ? null : host.toURI();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 将URL返回的字符串解析成Map, 解析的字符串格式：a=a&b=b&c=c<br>
+     * 注：单次遍历解析，需逐个消费参数（如验签）时可直接使用 {@link HttpQueryParser#parse(String, HttpQueryParser.Visitor)}
      *
      * @Param
      * @Author chenck
@@ -171,33 +190,17 @@ public class HttpLibs {
         if (StringUtils.isBlank(urlParam)) {
             return null;
         }
-        Map<String, String> map = new HashMap<String, String>(16);
-        try {
-            String[] params = urlParam.split(MARK_AND);
-            for (String param : params) {
-                String[] values = param.split(MARK_EQUAL, 2);
-                String value = values.length == 2 ? values[1] : "";
-                map.put(values[0], URLDecoder.decode(value, UTF_8));
-            }
-        } catch (UnsupportedEncodingException e) {
-            LOGGER.error("参数拼接异常：", e);
-        }
-        return map;
+        return HttpQueryParser.parseToMap(urlParam, StandardCharsets.UTF_8);
     }
 
+    /**
+     * 将k=v&k=v格式的字符串解析为NameValuePair参数集（值不解码）
+     */
     public static List<NameValuePair> getParamsList(String urlParam) {
         if (StringUtils.isBlank(urlParam)) {
             return new ArrayList<NameValuePair>();
         }
-
-        List<NameValuePair> res = new ArrayList<NameValuePair>();
-        String[] params = urlParam.split(MARK_AND);
-        for (String param : params) {
-            String[] values = param.split(MARK_EQUAL, 2);
-            String value = values.length == 2 ? values[1] : "";
-            res.add(new BasicNameValuePair(values[0], value));
-        }
-        return res;
+        return HttpQueryParser.parseToList(urlParam);
     }
 
     /**
@@ -256,30 +259,8 @@ public class HttpLibs {
         if (params == null || params.size() == 0) {
             return null;
         }
-
-        List<String> keys = null;
-        if (keyList == null || keyList.size() == 0) {
-            keys = new ArrayList<String>(params.keySet());
-        } else {
-            keys = keyList;
-        }
-
-        List<String> res = new ArrayList<String>(keys.size());
-        try {
-            for (int i = 0; i < keys.size(); i++) {
-                String key = keys.get(i);
-                Object value = params.get(key);
-                // 过滤为空和为null的字段
-                if (null == value || "".equals(value.toString().trim())) {
-                    continue;
-                }
-                res.add(key + MARK_EQUAL + URLEncoder.encode(value.toString().trim(), UTF_8));
-            }
-        } catch (UnsupportedEncodingException e) {
-            LOGGER.error("组装URL异常：", e);
-        }
-        String url = StringUtils.join(res, MARK_AND);
-        return url;
+        // 按Map的迭代顺序（或keyList顺序）直接编码到复用的StringBuilder，过滤为空和为null的字段
+        return HttpQueryEncoder.encode(params, keyList, StandardCharsets.UTF_8);
     }
 
 }
@@ -0,0 +1,45 @@
+package com.ck.platform.common.util.httpclient;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import org.slf4j.event.Level;
+
+/**
+ * 请求日志策略（只作用于成功请求的日志，失败、超时的日志始终输出）<br>
+ * 1.截断：响应内容超过maxLoggedChars时只输出前maxLoggedChars个字符<br>
+ * 2.采样：按sampleRate比例输出，如0.01表示只输出1%的成功请求日志<br>
+ * 3.级别：按level输出，该级别未启用时不格式化日志内容<br>
+ * 4.异步：async为true时，日志交给后台线程输出，不阻塞请求线程（队列满时丢弃）<br>
+ * 注：可按请求（HttpClientParam.logPolicy）、按接口名称（HttpLogger.register）、按连接池（HttpClientPoolConfig.logPolicy）设置，依次优先<br>
+ * 支持链式调用<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 23:25
+ */
+@Data
+@Accessors(chain = true)
+@NoArgsConstructor(staticName = "of")
+public class HttpLogPolicy {
+
+    /**
+     * 是否输出成功请求的日志，默认true
+     */
+    private boolean enabled = true;
+    /**
+     * 日志级别，默认INFO
+     */
+    private Level level = Level.INFO;
+    /**
+     * 最多输出的响应内容字符数，小于0表示不截断，默认1024
+     */
+    private int maxLoggedChars = 1024;
+    /**
+     * 采样率，取值范围[0,1]，默认1（全部输出）
+     */
+    private double sampleRate = 1D;
+    /**
+     * 是否异步输出，默认false
+     */
+    private boolean async = false;
+}
@@ -0,0 +1,180 @@
+package com.ck.platform.common.util.httpclient;
+
+import com.ck.platform.common.util.pool.RunnableMdcWarpper;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 请求日志输出（按 {@link HttpLogPolicy} 截断、采样、异步输出成功请求的日志）<br>
+ * 注：日志仍以HttpClientUtil作为logger名称输出，原有的日志配置继续生效；失败、超时的日志不受策略影响，始终同步输出<br>
+ * 注：异步输出时恢复调用线程的MDC内容（如traceId）；采样及截断在调用线程中完成，异步队列中只保留截断后的内容<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 23:30
+ */
+public class HttpLogger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientUtil.class);
+
+    private static final HttpLogPolicy DEFAULT_POLICY = HttpLogPolicy.of();
+    private static final ConcurrentHashMap<String, HttpLogPolicy> API_POLICY_MAP = new ConcurrentHashMap<String, HttpLogPolicy>();
+    private static volatile HttpLogPolicy defaultPolicy = DEFAULT_POLICY;
+
+    /**
+     * 异步输出日志的线程池（单线程，有界队列，队列满时丢弃）
+     */
+    private static final ThreadPoolExecutor ASYNC_EXECUTOR = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(10000), new DaemonThreadFactory("httpclient-logger-"),
+            (runnable, executor) -> HttpLogger.DROPPED_COUNT.increment());
+    private static final LongAdder DROPPED_COUNT = new LongAdder();
+
+    private HttpLogger() {
+    }
+
+    /**
+     * 为指定接口名称（HttpClientParam.apiName，如 HttpApiAnno.name）设置日志策略，为null时移除
+     */
+    public static void register(String apiName, HttpLogPolicy policy) {
+        if (StringUtils.isBlank(apiName)) {
+            throw new IllegalArgumentException("apiName should not be blank");
+        }
+        if (null == policy) {
+            API_POLICY_MAP.remove(apiName);
+        } else {
+            API_POLICY_MAP.put(apiName, policy);
+        }
+    }
+
+    /**
+     * 设置默认日志策略，为null时恢复默认值
+     */
+    public static void setDefaultPolicy(HttpLogPolicy policy) {
+        defaultPolicy = null == policy ? DEFAULT_POLICY : policy;
+    }
+
+    /**
+     * 异步输出时因队列满而丢弃的日志数（累计值）
+     */
+    public static long getDroppedCount() {
+        return DROPPED_COUNT.sum();
+    }
+
+    /**
+     * 输出成功请求的日志：[HttpClientUtil.invoke][type][tag]content
+     *
+     * @param reqParam 请求参数
+     * @param type     响应的ContentType
+     * @param tag      日志标签，如success
+     * @param content  日志内容（如响应内容），按策略截断
+     */
+    static void logSuccess(HttpClientParam reqParam, String type, String tag, String content) {
+        HttpLogPolicy policy = getPolicy(reqParam);
+        if (!policy.isEnabled() || !isEnabled(policy.getLevel())) {
+            return;
+        }
+        double sampleRate = policy.getSampleRate();
+        if (sampleRate < 1D && (sampleRate <= 0D || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        Level level = policy.getLevel();
+        // 在调用线程中截断，异步队列中只保留截断后的内容，避免大量响应内容堆积在队列中
+        String logged = truncate(content, policy.getMaxLoggedChars());
+        if (policy.isAsync()) {
+            // 在调用线程中捕获MDC内容，异步输出时恢复，保留链路追踪信息
+            ASYNC_EXECUTOR.execute(new RunnableMdcWarpper(() -> log(level, type, tag, logged)));
+        } else {
+            log(level, type, tag, logged);
+        }
+    }
+
+    /**
+     * 输出失败请求（响应状态码不为2xx和3xx）的日志
+     */
+    static void logFailure(HttpClientParam reqParam, HttpResultDto httpResultDto) {
+        LOGGER.warn("[HttpClientUtil.invoke][{}][{}] request failed, {}", reqParam.getMethod(), reqParam.getRequesturi(), httpResultDto.getRetMsg());
+    }
+
+    /**
+     * 输出超时请求的日志
+     */
+    static void logTimeout(HttpClientParam reqParam, Exception e) {
+        LOGGER.warn("[HttpClientUtil.invoke][{}][{}] request timeout, {}", reqParam.getMethod(), reqParam.getRequesturi(), e.toString());
+    }
+
+    /**
+     * 按最大字符数截断日志内容，maxLoggedChars小于0时不截断
+     */
+    private static String truncate(String content, int maxLoggedChars) {
+        if (null == content || maxLoggedChars < 0 || content.length() <= maxLoggedChars) {
+            return content;
+        }
+        return content.substring(0, maxLoggedChars) + "...(" + content.length() + " chars)";
+    }
+
+    private static void log(Level level, String type, String tag, String logged) {
+        switch (level) {
+            case ERROR:
+                LOGGER.error("[HttpClientUtil.invoke][{}][{}]{}", type, tag, logged);
+                break;
+            case WARN:
+                LOGGER.warn("[HttpClientUtil.invoke][{}][{}]{}", type, tag, logged);
+                break;
+            case INFO:
+                LOGGER.info("[HttpClientUtil.invoke][{}][{}]{}", type, tag, logged);
+                break;
+            case DEBUG:
+                LOGGER.debug("[HttpClientUtil.invoke][{}][{}]{}", type, tag, logged);
+                break;
+            default:
+                LOGGER.trace("[HttpClientUtil.invoke][{}][{}]{}", type, tag, logged);
+                break;
+        }
+    }
+
+    private static boolean isEnabled(Level level) {
+        switch (level) {
+            case ERROR:
+                return LOGGER.isErrorEnabled();
+            case WARN:
+                return LOGGER.isWarnEnabled();
+            case INFO:
+                return LOGGER.isInfoEnabled();
+            case DEBUG:
+                return LOGGER.isDebugEnabled();
+            default:
+                return LOGGER.isTraceEnabled();
+        }
+    }
+
+    /**
+     * 获取日志策略：按请求设置的优先，其次为按接口名称设置的、连接池设置的，最后为默认策略
+     */
+    private static HttpLogPolicy getPolicy(HttpClientParam reqParam) {
+        if (null == reqParam) {
+            return defaultPolicy;
+        }
+        if (null != reqParam.getLogPolicy()) {
+            return reqParam.getLogPolicy();
+        }
+        if (null != reqParam.getApiName() && !API_POLICY_MAP.isEmpty()) {
+            HttpLogPolicy policy = API_POLICY_MAP.get(reqParam.getApiName());
+            if (null != policy) {
+                return policy;
+            }
+        }
+        HttpClientPoolConfig poolConfig = HttpClientExecutorProvider.getPoolConfig(reqParam.getPoolName());
+        if (null != poolConfig && null != poolConfig.getLogPolicy()) {
+            return poolConfig.getLogPolicy();
+        }
+        return defaultPolicy;
+    }
+}
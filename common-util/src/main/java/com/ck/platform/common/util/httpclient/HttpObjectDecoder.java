@@ -0,0 +1,77 @@
+package com.ck.platform.common.util.httpclient;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONReader;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.Args;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+
+/**
+ * 将响应内容以流的方式直接反序列化为指定类型的对象，不构建中间的报文字符串<br>
+ * 1.JSON：基于fastjson的JSONReader流式解析<br>
+ * 2.XML：基于StAX流式解析，见 {@link HttpXmlUtil#parse(InputStream, Charset)}<br>
+ * 3.ContentType无法区分时（如text/plain、text/html），根据报文的第一个非空白字符判断：'&lt;'为XML，否则为JSON<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 15:40
+ */
+public class HttpObjectDecoder<T> implements HttpStreamConsumer<T> {
+
+    private final Class<T> clazz;
+
+    public HttpObjectDecoder(Class<T> clazz) {
+        Args.notNull(clazz, "Result class");
+        this.clazz = clazz;
+    }
+
+    @Override
+    public T consume(InputStream in, Charset charset, HttpResponse response) throws IOException {
+        ContentType contentType = ContentType.get(response.getEntity());
+        String mimeType = null != contentType ? contentType.getMimeType() : null;
+
+        boolean xml;
+        if (ContentType.APPLICATION_JSON.getMimeType().equalsIgnoreCase(mimeType)) {
+            xml = false;
+        } else if (ContentType.APPLICATION_XML.getMimeType().equalsIgnoreCase(mimeType)
+                || ContentType.TEXT_XML.getMimeType().equalsIgnoreCase(mimeType)) {
+            xml = true;
+        } else {
+            in = new BufferedInputStream(in);
+            int first = firstNonBlank(in);
+            if (first == -1) {
+                return null;
+            }
+            xml = first == '<';
+        }
+
+        if (xml) {
+            return JSON.toJavaObject(HttpXmlUtil.parse(in, charset), clazz);
+        }
+        try (JSONReader reader = new JSONReader(new InputStreamReader(in, charset))) {
+            return reader.readObject(clazz);
+        }
+    }
+
+    /**
+     * 预读第一个非空白字节（不消费）
+     */
+    private static int firstNonBlank(InputStream in) throws IOException {
+        while (true) {
+            in.mark(1);
+            int b = in.read();
+            if (b == -1) {
+                return -1;
+            }
+            if (!Character.isWhitespace(b)) {
+                in.reset();
+                return b;
+            }
+        }
+    }
+}
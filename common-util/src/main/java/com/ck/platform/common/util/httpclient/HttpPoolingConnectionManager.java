@@ -0,0 +1,289 @@
+package com.ck.platform.common.util.httpclient;
+
+import com.ck.platform.common.util.httpclient.metrics.HttpCacheCounter;
+import com.ck.platform.common.util.httpclient.metrics.HttpLatencyHistogram;
+import com.ck.platform.common.util.httpclient.metrics.HttpPoolStats;
+import com.ck.platform.common.util.httpclient.metrics.HttpRouteStats;
+import com.ck.platform.common.util.httpclient.metrics.HttpTrafficCounter;
+import com.ck.platform.common.util.httpclient.metrics.HttpWarmUpStats;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.Registry;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带统计信息的HttpClient连接池
+ * <p>
+ * 在 {@link PoolingHttpClientConnectionManager} 的基础上，统计获取连接的等待耗时（连接池及各路由）、清除的过期和空闲连接数，
+ * 并提供连接池及各路由的统计信息快照<br>
+ * 注：路由的等待耗时随连接池中的路由一起清除（路由的连接均被关闭后），数量超过上限（默认1000）时新路由只计入连接池的等待耗时
+ *
+ * @author chenck
+ * @date 2026/10/18 17:05
+ */
+public class HttpPoolingConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpPoolingConnectionManager.class);
+
+    private final String poolName;
+    /**
+     * 获取连接的等待耗时（单位：微秒）
+     */
+    private final HttpLatencyHistogram leaseWaitHistogram = new HttpLatencyHistogram();
+    /**
+     * 各路由获取连接的等待耗时（单位：微秒）
+     */
+    private final ConcurrentHashMap<HttpRoute, HttpLatencyHistogram> routeLeaseWaitMap = new ConcurrentHashMap<HttpRoute, HttpLatencyHistogram>();
+    private final AtomicLong lastRouteEvictTime = new AtomicLong();
+    private volatile int maxRouteHistograms = 1000;
+    private final LongAdder evictedExpired = new LongAdder();
+    private final LongAdder evictedIdle = new LongAdder();
+    /**
+     * 响应缓存计数器，未启用响应缓存时为null
+     */
+    private volatile HttpCacheCounter cacheCounter;
+    /**
+     * 流量计数器
+     */
+    private final HttpTrafficCounter trafficCounter = new HttpTrafficCounter();
+
+    public HttpPoolingConnectionManager(String poolName, Registry<ConnectionSocketFactory> socketFactoryRegistry) {
+        super(socketFactoryRegistry);
+        this.poolName = poolName;
+    }
+
+    /**
+     * @param dnsResolver DNS解析器，如 {@link HttpCachingDnsResolver}
+     */
+    public HttpPoolingConnectionManager(String poolName, Registry<ConnectionSocketFactory> socketFactoryRegistry,
+                                        DnsResolver dnsResolver) {
+        super(socketFactoryRegistry, dnsResolver);
+        this.poolName = poolName;
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        final ConnectionRequest connRequest = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit tunit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                long startTime = System.nanoTime();
+                try {
+                    return connRequest.get(timeout, tunit);
+                } finally {
+                    long waitMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime);
+                    leaseWaitHistogram.record(waitMicros);
+                    HttpLatencyHistogram routeHistogram = getRouteLeaseWaitHistogram(route);
+                    if (null != routeHistogram) {
+                        routeHistogram.record(waitMicros);
+                    }
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return connRequest.cancel();
+            }
+        };
+    }
+
+    /**
+     * 获取路由的等待耗时统计，数量达到上限时先清除连接池中已不存在的路由（最多每秒清除一次）
+     *
+     * @return 清除后仍达到上限时返回null
+     */
+    private HttpLatencyHistogram getRouteLeaseWaitHistogram(HttpRoute route) {
+        HttpLatencyHistogram histogram = routeLeaseWaitMap.get(route);
+        if (null != histogram) {
+            return histogram;
+        }
+        if (routeLeaseWaitMap.size() >= maxRouteHistograms) {
+            long now = System.currentTimeMillis();
+            long lastEvictTime = lastRouteEvictTime.get();
+            if (now - lastEvictTime >= 1000 && lastRouteEvictTime.compareAndSet(lastEvictTime, now)) {
+                routeLeaseWaitMap.keySet().retainAll(getRoutes());
+                if (routeLeaseWaitMap.size() >= maxRouteHistograms) {
+                    LOGGER.warn("[httpclient pool][poolName:{}] route lease wait histogram count reached the limit {}, new routes will not be recorded",
+                            poolName, maxRouteHistograms);
+                }
+            }
+            if (routeLeaseWaitMap.size() >= maxRouteHistograms) {
+                return null;
+            }
+        }
+        return routeLeaseWaitMap.computeIfAbsent(route, key -> new HttpLatencyHistogram());
+    }
+
+    /**
+     * 清除过期和闲置的连接，并统计清除的连接数
+     * 注：通过清除前后的空闲连接数差值计算，期间若有连接被租用或归还，统计值为近似值
+     *
+     * @param idleTime 空闲时长，单位毫秒
+     */
+    public void evictExpiredAndIdleConnections(long idleTime) {
+        int before = getTotalStats().getAvailable();
+        closeExpiredConnections();
+        int afterExpired = getTotalStats().getAvailable();
+        closeIdleConnections(idleTime, TimeUnit.MILLISECONDS);
+        int afterIdle = getTotalStats().getAvailable();
+        evictedExpired.add(Math.max(before - afterExpired, 0));
+        evictedIdle.add(Math.max(afterExpired - afterIdle, 0));
+    }
+
+    /**
+     * 预热路由：同时租用connCount个连接，对未建立的连接完成TCP连接（https含TLS握手）后归还连接池，归还的连接可被后续请求复用<br>
+     * 注：租用连接不计入获取连接的等待耗时统计；connCount不超过该路由的最大连接数
+     *
+     * @param route           直连路由
+     * @param connCount       建立的连接数
+     * @param connectTimeout  建立连接及从连接池获取连接的超时时间，单位毫秒
+     * @param keepAliveMillis 归还后连接的存活时长，单位毫秒
+     * @param connectExecutor 并发建立连接的线程池
+     * @return 预热结果（不含预热请求的状态码及耗时）
+     */
+    public HttpWarmUpStats warmUp(HttpRoute route, int connCount, int connectTimeout, long keepAliveMillis,
+                                  Executor connectExecutor) throws InterruptedException {
+        int requested = Math.min(connCount, getMaxPerRoute(route));
+        List<HttpClientConnection> connList = new ArrayList<HttpClientConnection>(requested);
+        try {
+            for (int i = 0; i < requested; i++) {
+                try {
+                    connList.add(super.requestConnection(route, null).get(connectTimeout, TimeUnit.MILLISECONDS));
+                } catch (ExecutionException | ConnectionPoolTimeoutException e) {
+                    LOGGER.warn("[httpclient pool warm-up][poolName:{}][route:{}] lease connection failed, {}", poolName, route.getTargetHost(), e.toString());
+                    break;
+                }
+            }
+            List<CompletableFuture<Boolean>> futures = new ArrayList<CompletableFuture<Boolean>>(connList.size());
+            for (final HttpClientConnection conn : connList) {
+                if (conn.isOpen()) {
+                    futures.add(CompletableFuture.completedFuture(Boolean.TRUE));
+                    continue;
+                }
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    HttpClientContext context = HttpClientContext.create();
+                    try {
+                        connect(conn, route, connectTimeout, context);
+                        routeComplete(conn, route, context);
+                        return Boolean.TRUE;
+                    } catch (IOException e) {
+                        LOGGER.warn("[httpclient pool warm-up][poolName:{}][route:{}] connect failed, {}", poolName, route.getTargetHost(), e.toString());
+                        return Boolean.FALSE;
+                    }
+                }, connectExecutor));
+            }
+            int opened = 0;
+            for (CompletableFuture<Boolean> future : futures) {
+                try {
+                    if (future.get()) {
+                        opened++;
+                    }
+                } catch (ExecutionException e) {
+                    LOGGER.warn("[httpclient pool warm-up][poolName:{}][route:{}] connect error", poolName, route.getTargetHost(), e.getCause());
+                }
+            }
+            HttpWarmUpStats stats = new HttpWarmUpStats();
+            stats.setPoolName(poolName);
+            stats.setRoute(route.getTargetHost().toURI());
+            stats.setRequested(requested);
+            stats.setOpened(opened);
+            stats.setFailed(requested - opened);
+            return stats;
+        } finally {
+            // 未建立的连接归还时会被关闭
+            for (HttpClientConnection conn : connList) {
+                releaseConnection(conn, null, keepAliveMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * 获取连接池及各路由的统计信息快照
+     */
+    public HttpPoolStats getPoolStats() {
+        PoolStats totalStats = getTotalStats();
+        HttpPoolStats stats = new HttpPoolStats();
+        stats.setPoolName(poolName);
+        stats.setLeased(totalStats.getLeased());
+        stats.setAvailable(totalStats.getAvailable());
+        stats.setPending(totalStats.getPending());
+        stats.setMax(totalStats.getMax());
+        stats.setDefaultMaxPerRoute(getDefaultMaxPerRoute());
+        stats.setLeaseWait(leaseWaitHistogram.snapshot());
+        stats.setEvictedExpired(evictedExpired.sum());
+        stats.setEvictedIdle(evictedIdle.sum());
+        trafficCounter.fill(stats);
+        if (null != cacheCounter) {
+            stats.setCache(cacheCounter.snapshot());
+        }
+
+        Set<HttpRoute> routes = getRoutes();
+        // 路由随连接池一起清除
+        routeLeaseWaitMap.keySet().retainAll(routes);
+        List<HttpRouteStats> routeStatsList = new ArrayList<HttpRouteStats>(routes.size());
+        for (HttpRoute route : routes) {
+            PoolStats poolStats = getStats(route);
+            HttpRouteStats routeStats = new HttpRouteStats();
+            routeStats.setRoute(null == route.getProxyHost() ? route.getTargetHost().toURI()
+                    : route.getTargetHost().toURI() + " via " + route.getProxyHost().toURI());
+            routeStats.setLeased(poolStats.getLeased());
+            routeStats.setAvailable(poolStats.getAvailable());
+            routeStats.setPending(poolStats.getPending());
+            routeStats.setMax(poolStats.getMax());
+            HttpLatencyHistogram routeHistogram = routeLeaseWaitMap.get(route);
+            if (null != routeHistogram) {
+                routeStats.setLeaseWait(routeHistogram.snapshot());
+            }
+            routeStatsList.add(routeStats);
+        }
+        stats.setRoutes(routeStatsList);
+        return stats;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    /**
+     * 设置记录等待耗时的路由数量上限，默认1000
+     */
+    public void setMaxRouteHistograms(int maxRouteHistograms) {
+        if (maxRouteHistograms <= 0) {
+            throw new IllegalArgumentException("maxRouteHistograms should be greater than 0");
+        }
+        this.maxRouteHistograms = maxRouteHistograms;
+    }
+
+    public HttpTrafficCounter getTrafficCounter() {
+        return trafficCounter;
+    }
+
+    public HttpCacheCounter getCacheCounter() {
+        return cacheCounter;
+    }
+
+    public void setCacheCounter(HttpCacheCounter cacheCounter) {
+        this.cacheCounter = cacheCounter;
+    }
+}
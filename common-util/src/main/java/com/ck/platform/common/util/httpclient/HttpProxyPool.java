@@ -0,0 +1,420 @@
+package com.ck.platform.common.util.httpclient;
+
+import com.ck.platform.common.util.httpclient.metrics.HttpProxyStats;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 代理池（挂载到连接池，见 HttpClientPoolConfig.proxyPool）<br>
+ * 1.选择：未显式设置代理的请求，按权重随机选择一个可用代理，权重 = 成功率² / (耗时 + 10ms)，成功率及耗时均为指数加权移动平均<br>
+ * 2.并发上限：单个代理进行中的请求数达到maxConcurrencyPerProxy时不再被选择<br>
+ * 3.剔除：连续失败failureThreshold次后剔除，剔除时长按次数倍增（不超过maxEjectDuration）<br>
+ * 4.恢复：配置了probeUrl时由后台线程探测，探测成功后恢复；否则剔除到期后放行一个请求试探，成功后恢复，失败则再次剔除<br>
+ * 注：超时、网络异常及failureStatusCodes中的响应状态码计为失败；请求使用的代理地址写入HttpResultDto.proxyIp<br>
+ * 注：没有可用代理时，allowDirect为false则请求返回REJECTED，否则直连<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 20:30
+ */
+public class HttpProxyPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpProxyPool.class);
+    /**
+     * 指数加权移动平均的平滑系数
+     */
+    private static final double EWMA_ALPHA = 0.2D;
+    /**
+     * 计算权重时耗时的基数，避免新代理（无耗时样本）权重无穷大，单位毫秒
+     */
+    private static final double LATENCY_BASE_MILLIS = 10D;
+    /**
+     * 恢复的代理的最低成功率，使其能重新获得流量
+     */
+    private static final double RESTORED_SUCCESS_RATE = 0.5D;
+    /**
+     * 选择代理时的最大尝试次数（并发获取同一代理失败时重新选择）
+     */
+    private static final int MAX_SELECT_ATTEMPTS = 3;
+
+    private final String poolName;
+    private final HttpProxyPoolConfig config;
+    private final CloseableHttpClient httpClient;
+    private final CopyOnWriteArrayList<ProxyNode> nodes = new CopyOnWriteArrayList<ProxyNode>();
+    /**
+     * 探测线程，未配置probeUrl时为null
+     */
+    private final ScheduledExecutorService probeScheduler;
+
+    /**
+     * @param previous 被替换的代理池，不为null时仍在配置中的代理沿用其状态（进行中的请求归还到同一个代理状态上）
+     */
+    HttpProxyPool(String poolName, HttpProxyPoolConfig config, CloseableHttpClient httpClient, HttpProxyPool previous) {
+        config.validate();
+        this.poolName = poolName;
+        this.config = config;
+        this.httpClient = httpClient;
+        if (null != config.getProxies()) {
+            for (String proxy : config.getProxies()) {
+                HttpHost host = HttpHost.create(proxy.trim());
+                ProxyNode node = null == previous ? null : previous.findNode(host);
+                synchronized (nodes) {
+                    if (null == findNode(host)) {
+                        nodes.add(null == node ? new ProxyNode(host) : node);
+                    }
+                }
+            }
+        }
+        if (null != config.getProbeUrl()) {
+            this.probeScheduler = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory(poolName + "_proxy-probe"));
+            this.probeScheduler.scheduleWithFixedDelay(this::probe, config.getProbeInterval(), config.getProbeInterval(), TimeUnit.MILLISECONDS);
+        } else {
+            this.probeScheduler = null;
+        }
+    }
+
+    /**
+     * 添加代理（已存在时忽略）
+     */
+    public void addProxy(String host, int port) {
+        Args.notBlank(host, "host");
+        Args.positive(port, "port");
+        addProxy(new HttpHost(host.trim(), port));
+    }
+
+    private void addProxy(HttpHost proxy) {
+        synchronized (nodes) {
+            if (null == findNode(proxy)) {
+                nodes.add(new ProxyNode(proxy));
+            }
+        }
+    }
+
+    /**
+     * 移除代理（进行中的请求不受影响）
+     *
+     * @return 代理不存在时返回false
+     */
+    public boolean removeProxy(String host, int port) {
+        synchronized (nodes) {
+            ProxyNode node = findNode(new HttpHost(host.trim(), port));
+            return null != node && nodes.remove(node);
+        }
+    }
+
+    private ProxyNode findNode(HttpHost proxy) {
+        for (ProxyNode node : nodes) {
+            if (node.proxy.equals(proxy)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取各代理的统计信息
+     */
+    public List<HttpProxyStats> getStats() {
+        List<HttpProxyStats> statsList = new ArrayList<HttpProxyStats>(nodes.size());
+        for (ProxyNode node : nodes) {
+            HttpProxyStats stats = new HttpProxyStats();
+            stats.setPoolName(poolName);
+            stats.setProxy(node.proxy.toHostString());
+            stats.setInFlight(node.inFlight.get());
+            stats.setRequests(node.requests.sum());
+            stats.setFailures(node.failures.sum());
+            synchronized (node) {
+                stats.setSuccessRate(node.successRate);
+                stats.setLatencyMillis(node.latencyMillis);
+                stats.setEjectCount(node.ejectCount);
+            }
+            stats.setWeight(node.weight());
+            stats.setEjected(node.ejected);
+            statsList.add(stats);
+        }
+        return statsList;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public HttpProxyPoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 按权重随机选择一个可用代理
+     *
+     * @return 没有可用代理且允许直连时返回null
+     * @throws HttpProxyUnavailableException 没有可用代理且不允许直连
+     */
+    Lease acquire() throws HttpProxyUnavailableException {
+        long now = System.currentTimeMillis();
+        List<ProxyNode> candidates = new ArrayList<ProxyNode>(nodes.size());
+        for (ProxyNode node : nodes) {
+            if (isSelectable(node, now)) {
+                candidates.add(node);
+            }
+        }
+        for (int i = 0; i < MAX_SELECT_ATTEMPTS && !candidates.isEmpty(); i++) {
+            ProxyNode node = select(candidates);
+            if (node.inFlight.incrementAndGet() <= getMaxConcurrency(node)) {
+                node.requests.increment();
+                return new Lease(node);
+            }
+            // 并发获取同一代理，已超过上限
+            node.inFlight.decrementAndGet();
+            candidates.remove(node);
+        }
+        if (config.isAllowDirect()) {
+            return null;
+        }
+        throw new HttpProxyUnavailableException("no available proxy, poolName=" + poolName);
+    }
+
+    /**
+     * 判断代理是否可被选择：未剔除且未达到并发上限；未配置探测地址时，剔除到期的代理允许一个试探请求
+     */
+    private boolean isSelectable(ProxyNode node, long now) {
+        if (node.ejected && (null != config.getProbeUrl() || now < node.ejectedUntil)) {
+            return false;
+        }
+        return node.inFlight.get() < getMaxConcurrency(node);
+    }
+
+    private int getMaxConcurrency(ProxyNode node) {
+        if (node.ejected) {
+            return 1;
+        }
+        return config.getMaxConcurrencyPerProxy() > 0 ? config.getMaxConcurrencyPerProxy() : Integer.MAX_VALUE;
+    }
+
+    private static ProxyNode select(List<ProxyNode> candidates) {
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        double[] weights = new double[candidates.size()];
+        double total = 0D;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = candidates.get(i).weight();
+            total += weights[i];
+        }
+        double random = ThreadLocalRandom.current().nextDouble() * total;
+        for (int i = 0; i < weights.length; i++) {
+            random -= weights[i];
+            if (random < 0) {
+                return candidates.get(i);
+            }
+        }
+        return candidates.get(weights.length - 1);
+    }
+
+    /**
+     * 记录请求结果，更新成功率、耗时，并按结果剔除或恢复代理<br>
+     * 注：剔除前已发出的请求只更新成功率、耗时，不改变剔除状态
+     *
+     * @param startMillis 请求发出的时间
+     */
+    private void onComplete(ProxyNode node, boolean success, long startMillis, long elapsedMillis) {
+        synchronized (node) {
+            node.successRate += ((success ? 1D : 0D) - node.successRate) * EWMA_ALPHA;
+            if (success) {
+                node.latencyMillis = node.latencyMillis <= 0 ? elapsedMillis : node.latencyMillis + (elapsedMillis - node.latencyMillis) * EWMA_ALPHA;
+            } else {
+                node.failures.increment();
+            }
+            if (node.ejected && startMillis < node.ejectedAt) {
+                return;
+            }
+            if (success) {
+                node.consecutiveFailures = 0;
+                if (node.ejected) {
+                    restore(node);
+                }
+                return;
+            }
+            node.consecutiveFailures++;
+            // 试探请求失败，或连续失败次数达到阈值时剔除
+            if (node.ejected || node.consecutiveFailures >= config.getFailureThreshold()) {
+                eject(node);
+            }
+        }
+    }
+
+    /**
+     * 剔除代理，剔除时长按连续剔除次数倍增
+     */
+    private void eject(ProxyNode node) {
+        node.ejectCount++;
+        long duration = config.getEjectDuration() << Math.min(node.ejectCount - 1, 20);
+        duration = duration <= 0 ? config.getMaxEjectDuration() : Math.min(duration, config.getMaxEjectDuration());
+        long now = System.currentTimeMillis();
+        node.ejectedAt = now;
+        node.ejectedUntil = now + duration;
+        node.ejected = true;
+        LOGGER.warn("[httpclient proxy pool][poolName:{}] eject proxy {} for {}ms, consecutiveFailures={}, ejectCount={}",
+                poolName, node.proxy.toHostString(), duration, node.consecutiveFailures, node.ejectCount);
+    }
+
+    private void restore(ProxyNode node) {
+        node.ejected = false;
+        node.ejectCount = 0;
+        node.consecutiveFailures = 0;
+        node.successRate = Math.max(node.successRate, RESTORED_SUCCESS_RATE);
+        LOGGER.info("[httpclient proxy pool][poolName:{}] restore proxy {}", poolName, node.proxy.toHostString());
+    }
+
+    /**
+     * 探测剔除到期的代理
+     */
+    private void probe() {
+        long now = System.currentTimeMillis();
+        for (ProxyNode node : nodes) {
+            if (!node.ejected || now < node.ejectedUntil) {
+                continue;
+            }
+            boolean success = probe(node);
+            synchronized (node) {
+                if (success) {
+                    restore(node);
+                } else {
+                    eject(node);
+                }
+            }
+        }
+    }
+
+    private boolean probe(ProxyNode node) {
+        HttpGet request = new HttpGet(config.getProbeUrl());
+        request.setConfig(RequestConfig.custom().setProxy(node.proxy).setConnectTimeout(config.getProbeTimeout())
+                .setSocketTimeout(config.getProbeTimeout()).setConnectionRequestTimeout(config.getProbeTimeout()).build());
+        HttpClientContext context = HttpClientContext.create();
+        context.setCookieStore(new BasicCookieStore());
+        try {
+            int statusCode = httpClient.execute(request, response -> response.getStatusLine().getStatusCode(), context);
+            return statusCode < 500 && !config.getFailureStatusCodes().contains(statusCode);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("[httpclient proxy pool][poolName:{}] probe proxy {} failed, {}", poolName, node.proxy.toHostString(), e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * 关闭探测线程
+     */
+    void shutdown() {
+        if (null != probeScheduler) {
+            probeScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 代理租约，请求完成后通过complete/fail/cancel归还（只生效一次）
+     */
+    final class Lease {
+        private final ProxyNode node;
+        private final long startMillis = System.currentTimeMillis();
+        private final long startTime = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Lease(ProxyNode node) {
+            this.node = node;
+        }
+
+        HttpHost getProxy() {
+            return node.proxy;
+        }
+
+        /**
+         * 请求已收到响应，按响应状态码判断成功或失败
+         */
+        void complete(int statusCode) {
+            release(!config.getFailureStatusCodes().contains(statusCode), true);
+        }
+
+        /**
+         * 请求已完成，按请求结果判断成功或失败（超时及网络异常计为失败）
+         */
+        void complete(HttpResultDto httpResultDto) {
+            if (httpResultDto.isRejected()) {
+                cancel();
+            } else if (httpResultDto.isTimeout() || (httpResultDto.isFail() && httpResultDto.getStatusCode() == 0)) {
+                fail();
+            } else {
+                complete(httpResultDto.getStatusCode());
+            }
+        }
+
+        /**
+         * 请求失败（超时、网络异常）
+         */
+        void fail() {
+            release(false, true);
+        }
+
+        /**
+         * 请求取消或未发出，不计入统计
+         */
+        void cancel() {
+            release(false, false);
+        }
+
+        private void release(boolean success, boolean sample) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            node.inFlight.decrementAndGet();
+            if (sample) {
+                onComplete(node, success, startMillis, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            }
+        }
+    }
+
+    /**
+     * 单个代理的状态
+     */
+    private static final class ProxyNode {
+        final HttpHost proxy;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final LongAdder requests = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        // 以下字段的更新在synchronized (node)中进行
+        volatile double successRate = 1D;
+        volatile double latencyMillis;
+        int consecutiveFailures;
+        int ejectCount;
+        volatile boolean ejected;
+        /**
+         * 最近一次剔除的时间
+         */
+        long ejectedAt;
+        volatile long ejectedUntil;
+
+        ProxyNode(HttpHost proxy) {
+            this.proxy = proxy;
+        }
+
+        double weight() {
+            return successRate * successRate / (latencyMillis + LATENCY_BASE_MILLIS);
+        }
+    }
+}
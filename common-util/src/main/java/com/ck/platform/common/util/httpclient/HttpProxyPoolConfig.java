@@ -0,0 +1,111 @@
+package com.ck.platform.common.util.httpclient;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import org.apache.http.util.Args;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 代理池配置，通过 HttpClientPoolConfig.proxyPool 挂载到连接池，见 {@link HttpProxyPool}<br>
+ * 支持链式调用<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 20:30
+ */
+@Data
+@Accessors(chain = true)
+@NoArgsConstructor(staticName = "of")
+public class HttpProxyPoolConfig {
+
+    /**
+     * 代理地址，格式为 host:port
+     */
+    private List<String> proxies;
+    /**
+     * 单个代理的最大并发请求数，小于等于0时不限制
+     */
+    private int maxConcurrencyPerProxy = 20;
+    /**
+     * 连续失败多少次后剔除代理
+     */
+    private int failureThreshold = 3;
+    /**
+     * 首次剔除时长，单位毫秒，再次剔除时按倍数递增
+     */
+    private long ejectDuration = 30 * 1000;
+    /**
+     * 最大剔除时长，单位毫秒
+     */
+    private long maxEjectDuration = 5 * 60 * 1000;
+    /**
+     * 计为代理失败的响应状态码（如代理认证失败、目标站点限流、代理网关错误），超时及网络异常始终计为失败
+     */
+    private Set<Integer> failureStatusCodes = new LinkedHashSet<Integer>(Arrays.asList(407, 429, 502, 503, 504));
+    /**
+     * 探测地址，为null时剔除到期的代理直接放行一个请求试探，成功后恢复
+     */
+    private String probeUrl;
+    /**
+     * 探测间隔，单位毫秒
+     */
+    private long probeInterval = 10 * 1000;
+    /**
+     * 探测请求的超时时间，单位毫秒
+     */
+    private int probeTimeout = 3000;
+    /**
+     * 没有可用代理（均被剔除或达到并发上限）时是否直连，默认false（请求直接返回REJECTED）
+     */
+    private boolean allowDirect = false;
+
+    /**
+     * 添加代理
+     */
+    public HttpProxyPoolConfig addProxy(String host, int port) {
+        Args.notBlank(host, "host");
+        Args.positive(port, "port");
+        if (null == this.proxies) {
+            this.proxies = new ArrayList<String>();
+        }
+        this.proxies.add(host.trim() + HttpLibs.MARK_COLON + port);
+        return this;
+    }
+
+    /**
+     * 复制配置（代理地址及状态码集合一并复制）
+     */
+    public HttpProxyPoolConfig copy() {
+        return HttpProxyPoolConfig.of()
+                .setProxies(null == proxies ? null : new ArrayList<String>(proxies))
+                .setMaxConcurrencyPerProxy(maxConcurrencyPerProxy)
+                .setFailureThreshold(failureThreshold)
+                .setEjectDuration(ejectDuration)
+                .setMaxEjectDuration(maxEjectDuration)
+                .setFailureStatusCodes(null == failureStatusCodes ? null : new LinkedHashSet<Integer>(failureStatusCodes))
+                .setProbeUrl(probeUrl)
+                .setProbeInterval(probeInterval)
+                .setProbeTimeout(probeTimeout)
+                .setAllowDirect(allowDirect);
+    }
+
+    /**
+     * 校验配置
+     */
+    public void validate() {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failureThreshold should be positive");
+        }
+        if (ejectDuration <= 0 || maxEjectDuration < ejectDuration) {
+            throw new IllegalArgumentException("ejectDuration should be positive and not greater than maxEjectDuration");
+        }
+        if (null != probeUrl && (probeInterval <= 0 || probeTimeout <= 0)) {
+            throw new IllegalArgumentException("probeInterval and probeTimeout should be positive");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ck.platform.common.util.httpclient;
+
+import java.io.IOException;
+
+/**
+ * 代理池中没有可用的代理（均被剔除或达到并发上限）
+ *
+ * @author chenck
+ * @date 2026/10/18 20:30
+ */
+public class HttpProxyUnavailableException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public HttpProxyUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,197 @@
+package com.ck.platform.common.util.httpclient;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 查询串/表单编码器<br>
+ * 以查表方式进行百分号编码，直接写入调用方提供的StringBuilder，不生成中间集合与字符串；UTF-8编码时逐字符转换，不分配字节数组<br>
+ * 编码规则与 {@link java.net.URLEncoder} 一致（application/x-www-form-urlencoded）：字母、数字及 .-*_ 不编码，空格编码为+<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 22:40
+ */
+public final class HttpQueryEncoder {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    /**
+     * StringBuilder复用的最大容量，超过时不再复用，避免线程长期持有大对象
+     */
+    private static final int MAX_REUSE_CAPACITY = 8 * 1024;
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /**
+     * application/x-www-form-urlencoded 中无需编码的ASCII字符
+     */
+    static final boolean[] FORM_SAFE = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            FORM_SAFE[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            FORM_SAFE[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            FORM_SAFE[c] = true;
+        }
+        for (char c : ".-*_".toCharArray()) {
+            FORM_SAFE[c] = true;
+        }
+    }
+
+    private HttpQueryEncoder() {
+    }
+
+    /**
+     * 将参数Map编码为 k=v&amp;k=v 格式的查询串，按Map自身的迭代顺序（如TreeMap按key升序）输出<br>
+     * 注：过滤值为null或空白的参数，值会先去除首尾空白；key不编码（与HttpLibs.buildParamsLink一致）
+     *
+     * @param params  参数Map
+     * @param keyList 拼装顺序，为空时按Map的迭代顺序拼装所有参数
+     * @param charset 字符集
+     */
+    public static String encode(Map<String, ?> params, List<String> keyList, Charset charset) {
+        if (null == params || params.isEmpty()) {
+            return null;
+        }
+        StringBuilder sb = BUILDER.get();
+        sb.setLength(0);
+        appendParams(sb, params, keyList, charset);
+        String result = sb.toString();
+        if (sb.capacity() > MAX_REUSE_CAPACITY) {
+            BUILDER.remove();
+        }
+        return result;
+    }
+
+    /**
+     * 将参数Map以 k=v&amp;k=v 格式写入StringBuilder，规则同 {@link #encode(Map, List, Charset)}
+     *
+     * @return 写入的参数个数
+     */
+    public static int appendParams(StringBuilder sb, Map<String, ?> params, List<String> keyList, Charset charset) {
+        int count = 0;
+        if (null == keyList || keyList.isEmpty()) {
+            for (Map.Entry<String, ?> entry : params.entrySet()) {
+                if (appendParam(sb, entry.getKey(), entry.getValue(), count > 0, charset)) {
+                    count++;
+                }
+            }
+        } else {
+            for (String key : keyList) {
+                if (appendParam(sb, key, params.get(key), count > 0, charset)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean appendParam(StringBuilder sb, String key, Object value, boolean separator, Charset charset) {
+        if (null == value) {
+            return false;
+        }
+        String str = value.toString();
+        int start = 0;
+        int end = str.length();
+        while (start < end && str.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && str.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return false;
+        }
+        if (separator) {
+            sb.append('&');
+        }
+        sb.append(key).append('=');
+        appendEncoded(sb, str, start, end, FORM_SAFE, true, charset);
+        return true;
+    }
+
+    /**
+     * 按application/x-www-form-urlencoded规则编码并写入StringBuilder
+     */
+    public static StringBuilder appendEncoded(StringBuilder sb, String str, Charset charset) {
+        return appendEncoded(sb, str, 0, str.length(), FORM_SAFE, true, charset);
+    }
+
+    /**
+     * 百分号编码并写入StringBuilder
+     *
+     * @param safe        无需编码的ASCII字符表
+     * @param spaceAsPlus 空格是否编码为+
+     */
+    static StringBuilder appendEncoded(StringBuilder sb, String str, int start, int end, boolean[] safe, boolean spaceAsPlus, Charset charset) {
+        boolean utf8 = StandardCharsets.UTF_8.equals(charset);
+        int i = start;
+        while (i < end) {
+            char c = str.charAt(i);
+            if (c < 128 && safe[c]) {
+                sb.append(c);
+                i++;
+            } else if (c == ' ' && spaceAsPlus) {
+                sb.append('+');
+                i++;
+            } else if (utf8) {
+                i = appendUtf8(sb, str, i, end);
+            } else {
+                // 连续的需编码字符一起按字符集转换为字节（保证代理对完整）
+                int runStart = i;
+                while (i < end && !isSafe(str.charAt(i), safe, spaceAsPlus)) {
+                    i++;
+                }
+                for (byte b : str.substring(runStart, i).getBytes(charset)) {
+                    appendHex(sb, b);
+                }
+            }
+        }
+        return sb;
+    }
+
+    private static boolean isSafe(char c, boolean[] safe, boolean spaceAsPlus) {
+        return (c < 128 && safe[c]) || (c == ' ' && spaceAsPlus);
+    }
+
+    /**
+     * 将一个字符（或代理对）按UTF-8编码写入
+     *
+     * @return 下一个字符的位置
+     */
+    private static int appendUtf8(StringBuilder sb, String str, int i, int end) {
+        int cp = str.charAt(i);
+        int next = i + 1;
+        if (Character.isHighSurrogate((char) cp) && next < end && Character.isLowSurrogate(str.charAt(next))) {
+            cp = Character.toCodePoint((char) cp, str.charAt(next));
+            next++;
+        } else if (Character.isSurrogate((char) cp)) {
+            // 不成对的代理字符，与String.getBytes一致替换为?
+            cp = '?';
+        }
+        if (cp < 0x80) {
+            appendHex(sb, cp);
+        } else if (cp < 0x800) {
+            appendHex(sb, 0xC0 | (cp >> 6));
+            appendHex(sb, 0x80 | (cp & 0x3F));
+        } else if (cp < 0x10000) {
+            appendHex(sb, 0xE0 | (cp >> 12));
+            appendHex(sb, 0x80 | ((cp >> 6) & 0x3F));
+            appendHex(sb, 0x80 | (cp & 0x3F));
+        } else {
+            appendHex(sb, 0xF0 | (cp >> 18));
+            appendHex(sb, 0x80 | ((cp >> 12) & 0x3F));
+            appendHex(sb, 0x80 | ((cp >> 6) & 0x3F));
+            appendHex(sb, 0x80 | (cp & 0x3F));
+        }
+        return next;
+    }
+
+    private static void appendHex(StringBuilder sb, int b) {
+        sb.append('%').append(HEX_DIGITS[(b >> 4) & 0x0F]).append(HEX_DIGITS[b & 0x0F]);
+    }
+}
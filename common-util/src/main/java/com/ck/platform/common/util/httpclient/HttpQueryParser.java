@@ -0,0 +1,210 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.message.BasicNameValuePair;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 查询串/表单解析器<br>
+ * 单次遍历，按下标切分 k=v&amp;k=v 格式的字符串，不使用正则，也不为每个参数分配数组；
+ * 解码规则与 {@link java.net.URLDecoder} 一致（+解码为空格，%XX按字符集解码），不含转义字符的值直接截取原字符串<br>
+ * 通过 {@link Visitor} 可逐个消费参数（如验签时按参数名拼接原始值），不必先构建Map<br>
+ * 注：空参数（如 a=1&amp;&amp;b=2 中间的空串）会被忽略；参数名不解码（与HttpLibs.getUrlParamToMap一致）
+ *
+ * @author chenck
+ * @date 2026/10/18 22:55
+ */
+public final class HttpQueryParser {
+
+    private HttpQueryParser() {
+    }
+
+    /**
+     * 参数访问者
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * 访问一个参数
+         *
+         * @param param 参数（复用的对象，只在本次回调内有效，不应被保存）
+         * @return false表示停止解析
+         */
+        boolean visit(Param param);
+    }
+
+    /**
+     * 参数的轻量视图：只记录参数名和值在原字符串中的位置，取值时才截取或解码
+     */
+    public static final class Param {
+        private String source;
+        private int nameStart;
+        private int nameEnd;
+        private int valueStart;
+        private int valueEnd;
+
+        private Param() {
+        }
+
+        /**
+         * 参数名（未解码）
+         */
+        public String getName() {
+            return source.substring(nameStart, nameEnd);
+        }
+
+        /**
+         * 判断参数名是否等于指定名称（不创建字符串）
+         */
+        public boolean nameEquals(String name) {
+            return name.length() == nameEnd - nameStart && source.regionMatches(nameStart, name, 0, name.length());
+        }
+
+        /**
+         * 原始值（未解码），无=号时为空字符串
+         */
+        public String getRawValue() {
+            return source.substring(valueStart, valueEnd);
+        }
+
+        /**
+         * 将原始值（未解码）追加到StringBuilder（不创建字符串）
+         */
+        public StringBuilder appendRawValue(StringBuilder sb) {
+            return sb.append(source, valueStart, valueEnd);
+        }
+
+        /**
+         * 解码后的值
+         */
+        public String getValue(Charset charset) {
+            return decode(source, valueStart, valueEnd, charset);
+        }
+
+        /**
+         * 值是否为空
+         */
+        public boolean isValueEmpty() {
+            return valueStart == valueEnd;
+        }
+    }
+
+    /**
+     * 解析查询串，逐个回调访问者
+     *
+     * @param query   查询串，如 a=1&amp;b=2
+     * @param visitor 访问者
+     */
+    public static void parse(String query, Visitor visitor) {
+        if (null == query || query.isEmpty()) {
+            return;
+        }
+        Param param = new Param();
+        param.source = query;
+        int len = query.length();
+        int start = 0;
+        while (start < len) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = len;
+            }
+            if (end > start) {
+                int eq = query.indexOf('=', start);
+                param.nameStart = start;
+                if (eq >= 0 && eq < end) {
+                    param.nameEnd = eq;
+                    param.valueStart = eq + 1;
+                } else {
+                    param.nameEnd = end;
+                    param.valueStart = end;
+                }
+                param.valueEnd = end;
+                if (!visitor.visit(param)) {
+                    return;
+                }
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * 解析为Map，值按字符集解码（同名参数后者覆盖前者）
+     */
+    public static Map<String, String> parseToMap(String query, Charset charset) {
+        Map<String, String> map = new HashMap<String, String>(16);
+        parse(query, param -> {
+            map.put(param.getName(), param.getValue(charset));
+            return true;
+        });
+        return map;
+    }
+
+    /**
+     * 解析为NameValuePair列表，值不解码
+     */
+    public static List<NameValuePair> parseToList(String query) {
+        List<NameValuePair> list = new ArrayList<NameValuePair>();
+        parse(query, param -> {
+            list.add(new BasicNameValuePair(param.getName(), param.getRawValue()));
+            return true;
+        });
+        return list;
+    }
+
+    /**
+     * 解码指定区间的内容：+解码为空格，连续的%XX按字符集解码；不含转义字符时直接截取
+     *
+     * @throws IllegalArgumentException %后不是两位十六进制字符时抛出（与URLDecoder一致）
+     */
+    static String decode(String s, int start, int end, Charset charset) {
+        int i = start;
+        while (i < end) {
+            char c = s.charAt(i);
+            if (c == '%' || c == '+') {
+                break;
+            }
+            i++;
+        }
+        if (i == end) {
+            return s.substring(start, end);
+        }
+
+        StringBuilder sb = new StringBuilder(end - start);
+        sb.append(s, start, i);
+        byte[] bytes = null;
+        while (i < end) {
+            char c = s.charAt(i);
+            if (c == '+') {
+                sb.append(' ');
+                i++;
+            } else if (c == '%') {
+                if (null == bytes) {
+                    bytes = new byte[(end - i) / 3];
+                }
+                int n = 0;
+                while (i < end && s.charAt(i) == '%') {
+                    if (i + 2 >= end) {
+                        throw new IllegalArgumentException("URLDecoder: Incomplete trailing escape (%) pattern");
+                    }
+                    int hi = Character.digit(s.charAt(i + 1), 16);
+                    int lo = Character.digit(s.charAt(i + 2), 16);
+                    if (hi < 0 || lo < 0) {
+                        throw new IllegalArgumentException("URLDecoder: Illegal hex characters in escape (%) pattern");
+                    }
+                    bytes[n++] = (byte) ((hi << 4) + lo);
+                    i += 3;
+                }
+                sb.append(new String(bytes, 0, n, charset));
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+}
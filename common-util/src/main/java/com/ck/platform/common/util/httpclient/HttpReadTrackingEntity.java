@@ -0,0 +1,99 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.util.Args;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 记录响应内容读取是否失败的实体包装，用于区分网络异常（读取响应流失败）与本地异常（如写文件失败）<br>
+ * 注：writeTo按读取、写出分别处理，写出失败不计为读取失败
+ *
+ * @author chenck
+ * @date 2026/10/18 22:40
+ */
+class HttpReadTrackingEntity extends HttpEntityWrapper {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private volatile boolean readFailed;
+
+    HttpReadTrackingEntity(HttpEntity entity) {
+        super(entity);
+    }
+
+    /**
+     * 读取响应内容时是否发生过IO异常
+     */
+    boolean isReadFailed() {
+        return readFailed;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        InputStream content;
+        try {
+            content = wrappedEntity.getContent();
+        } catch (IOException e) {
+            readFailed = true;
+            throw e;
+        }
+        return null == content ? null : new TrackingInputStream(content);
+    }
+
+    @Override
+    public void writeTo(final OutputStream outstream) throws IOException {
+        Args.notNull(outstream, "Output stream");
+        try (InputStream instream = getContent()) {
+            if (null == instream) {
+                return;
+            }
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int len;
+            while ((len = instream.read(buffer)) != -1) {
+                outstream.write(buffer, 0, len);
+            }
+        }
+    }
+
+    private final class TrackingInputStream extends FilterInputStream {
+
+        TrackingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                readFailed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } catch (IOException e) {
+                readFailed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            try {
+                return super.skip(n);
+            } catch (IOException e) {
+                readFailed = true;
+                throw e;
+            }
+        }
+    }
+}
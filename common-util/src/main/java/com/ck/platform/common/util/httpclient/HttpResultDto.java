@@ -26,6 +26,10 @@ public class HttpResultDto {
      * 超时（含连接超时、读取超时两种情况）
      */
     public final static String TIMEOUT = "timeout";
+    /**
+     * 被拒绝（熔断或超过并发限制），请求未发出
+     */
+    public final static String REJECTED = "rejected";
 
     /**
      * 响应内容输出到文件<br>
@@ -44,6 +48,16 @@ public class HttpResultDto {
      */
     private String retMsg = "ok";
 
+    /**
+     * HTTP响应状态码，未收到响应时为0
+     */
+    private int statusCode;
+
+    /**
+     * 重试次数
+     */
+    private int retryCount;
+
     /**
      * 具体业务的返回码
      */
@@ -75,10 +89,20 @@ public class HttpResultDto {
     private String proxyIp;
 
     /**
-     * 响应头属性
+     * 响应头属性（响应状态码不为2xx/3xx时设置）
      */
     Map<String, List<String>> headerFields;
 
+    /**
+     * 响应内容输出到文件时，写入的字节数
+     */
+    private long responseBytes;
+
+    /**
+     * 响应内容输出到文件时，传输耗时（单位：毫秒）
+     */
+    private long transferTime;
+
     /**
      * 判断处理结果
      *
@@ -103,6 +127,13 @@ public class HttpResultDto {
         return checkRetCode(TIMEOUT);
     }
 
+    /**
+     * 判断是否被拒绝（熔断或超过并发限制）
+     */
+    public boolean isRejected() {
+        return checkRetCode(REJECTED);
+    }
+
     /**
      * 校验返回码
      *
@@ -134,6 +165,14 @@ public class HttpResultDto {
     }
 
 
+    /**
+     * 响应内容输出到文件时的传输速率（单位：字节/秒）
+     * 注：耗时不足1毫秒时按1毫秒计算
+     */
+    public long getThroughput() {
+        return responseBytes * 1000 / Math.max(transferTime, 1);
+    }
+
     public Object getBizDataObj() {
         if (null == bizDataObj) {
             return "";
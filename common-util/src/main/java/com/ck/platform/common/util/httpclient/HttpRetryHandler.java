@@ -0,0 +1,70 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.HttpRequest;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.SocketException;
+
+/**
+ * 连接层的立即重试（不退避），用于处理连接池中已被服务端关闭的连接（NoHttpResponseException/SocketException）<br>
+ * 只重试幂等请求或请求未完整发出的非幂等请求；需要退避、按状态码重试及重试预算时，使用 {@link HttpRetryPolicy}<br>
+ * 注：请求或连接池配置了重试策略时不重试，由 {@link HttpRetryer} 统一重试（避免重试次数相乘及绕过重试预算）<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 20:55
+ */
+public class HttpRetryHandler implements HttpRequestRetryHandler {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(HttpRetryHandler.class);
+
+    /**
+     * 请求上下文的属性，值为true时表示请求配置了重试策略
+     */
+    static final String RETRY_POLICY_APPLIED = "http.retry-policy.applied";
+
+    private final int retryExecutionCount;
+    /**
+     * 连接池配置，用于判断连接池是否配置了重试策略（支持运行时调整），可为null
+     */
+    private final HttpClientPoolConfig poolConfig;
+
+    public HttpRetryHandler(int retryExecutionCount) {
+        this(retryExecutionCount, null);
+    }
+
+    public HttpRetryHandler(int retryExecutionCount, HttpClientPoolConfig poolConfig) {
+        this.retryExecutionCount = retryExecutionCount;
+        this.poolConfig = poolConfig;
+    }
+
+    @Override
+    public boolean retryRequest(IOException exception, int executionCount, HttpContext context) {
+        // 限制重试次数
+        if (executionCount > retryExecutionCount) {
+            return false;
+        }
+        if (!(exception instanceof NoHttpResponseException) && !(exception instanceof SocketException)) {
+            return false;
+        }
+        HttpClientContext clientContext = HttpClientContext.adapt(context);
+        // 配置了重试策略时由HttpRetryer重试
+        if (Boolean.TRUE.equals(clientContext.getAttribute(RETRY_POLICY_APPLIED))
+                || (null != poolConfig && null != poolConfig.getRetryPolicy())) {
+            return false;
+        }
+        HttpRequest request = clientContext.getRequest();
+        if (null != request && !HttpRetryer.isIdempotent(request.getRequestLine().getMethod()) && clientContext.isRequestSent()) {
+            // 非幂等请求已发出，服务端可能已处理，不重试
+            return false;
+        }
+        LOGGER.info("[" + exception.getClass().getSimpleName() + " has retry request:" + context.toString()
+                + "][executionCount:" + executionCount + "]");
+        return true;
+    }
+}
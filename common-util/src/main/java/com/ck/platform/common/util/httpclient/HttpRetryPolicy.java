@@ -0,0 +1,89 @@
+package com.ck.platform.common.util.httpclient;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 重试策略<br>
+ * 1.退避：第n次重试前等待 min(maxBackoff, initialBackoff * multiplier^(n-1))，再按jitter比例随机缩减，避免重试请求同时到达<br>
+ * 2.按状态码重试：响应状态码在retryOnStatus中时重试，429/503响应带Retry-After时按其指定的时间等待<br>
+ * 3.幂等性：非幂等请求（如POST）只在连接建立失败（请求未发出）时重试，除非retryNonIdempotent为true<br>
+ * 4.重试预算：每个请求积累budgetRatio个令牌，每次重试消耗1个令牌，令牌不足时不重试，避免故障期间重试放大请求量<br>
+ * 注：可按连接池（HttpClientPoolConfig.retryPolicy）或按请求（HttpClientParam.retryPolicy）设置，按请求设置的优先<br>
+ * 支持链式调用<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 20:45
+ */
+@Data
+@Accessors(chain = true)
+@NoArgsConstructor(staticName = "of")
+public class HttpRetryPolicy {
+
+    /**
+     * 最大执行次数（含第一次请求）
+     */
+    private int maxAttempts = 3;
+    /**
+     * 第一次重试前的退避时间，单位毫秒
+     */
+    private long initialBackoff = 100;
+    /**
+     * 最大退避时间，单位毫秒
+     */
+    private long maxBackoff = 2000;
+    /**
+     * 退避时间的增长倍数
+     */
+    private double multiplier = 2D;
+    /**
+     * 随机缩减比例，取值范围[0,1]，如0.5表示实际退避时间在[50%,100%]之间随机，1表示完全随机
+     */
+    private double jitter = 0.5D;
+    /**
+     * 需要重试的响应状态码
+     */
+    private Set<Integer> retryOnStatus = new HashSet<Integer>(Arrays.asList(429, 502, 503));
+    /**
+     * 是否遵循429/503响应中的Retry-After
+     */
+    private boolean respectRetryAfter = true;
+    /**
+     * Retry-After允许的最大等待时间，超过时不重试，单位毫秒
+     */
+    private long maxRetryAfter = 10 * 1000;
+    /**
+     * 读取超时时是否重试（服务端可能已处理请求），默认false
+     */
+    private boolean retryOnReadTimeout = false;
+    /**
+     * 非幂等请求（如POST）在请求已发出后是否重试，默认false
+     */
+    private boolean retryNonIdempotent = false;
+    /**
+     * 重试比例上限，如0.1表示重试请求数不超过请求总数的10%
+     */
+    private double budgetRatio = 0.1D;
+    /**
+     * 重试令牌的最大积累数量（允许短时突发的重试数）
+     */
+    private int budgetBurst = 10;
+
+    /**
+     * 设置需要重试的响应状态码
+     */
+    public HttpRetryPolicy setRetryOnStatus(Integer... statusCodes) {
+        this.retryOnStatus = new HashSet<Integer>(Arrays.asList(statusCodes));
+        return this;
+    }
+
+    public HttpRetryPolicy setRetryOnStatus(Set<Integer> retryOnStatus) {
+        this.retryOnStatus = retryOnStatus;
+        return this;
+    }
+}
@@ -0,0 +1,353 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.HttpHostConnectException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 按重试策略执行同步请求，见 {@link HttpRetryPolicy}<br>
+ * 重试预算按接口隔离：优先使用HttpClientParam.apiName，未设置时使用请求的主机地址，预算参数（budgetRatio、budgetBurst）不同的策略使用各自的预算<br>
+ * 注：预算数量达到上限（默认10000）时，先清除闲置的预算，仍超出时新接口共用一个预算<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 20:50
+ */
+public class HttpRetryer {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(HttpRetryer.class);
+
+    /**
+     * 重试预算，按接口及预算参数（budgetRatio、budgetBurst）隔离
+     */
+    private static final ConcurrentHashMap<BudgetKey, HttpTokenBudget> BUDGET_MAP = new ConcurrentHashMap<BudgetKey, HttpTokenBudget>();
+    /**
+     * 预算数量超出上限时共用的重试预算
+     */
+    private static volatile OverflowBudget overflowBudget;
+    private static final AtomicLong LAST_EVICT_TIME = new AtomicLong();
+    private static volatile int maxBudgets = 10000;
+    private static volatile long idleTimeout = 10 * 60 * 1000;
+    /**
+     * 重试次数
+     */
+    private static final LongAdder RETRY_COUNT = new LongAdder();
+    /**
+     * 因预算不足未重试的次数
+     */
+    private static final LongAdder BUDGET_EXHAUSTED_COUNT = new LongAdder();
+
+    private HttpRetryer() {
+    }
+
+    /**
+     * 单次请求
+     */
+    @FunctionalInterface
+    interface Attempt {
+        /**
+         * 执行一次请求，结果写入httpResultDto
+         */
+        void execute(HttpResultDto httpResultDto) throws Exception;
+    }
+
+    /**
+     * 执行请求，失败时按重试策略重试
+     *
+     * @param reqParam 请求参数
+     * @param attempt  单次请求
+     * @return 最后一次请求的结果
+     */
+    static HttpResultDto execute(HttpClientParam reqParam, Attempt attempt) {
+        return HttpRetryer.execute(reqParam, attempt, () -> true);
+    }
+
+    /**
+     * 执行请求，失败时按重试策略重试
+     *
+     * @param reqParam  请求参数
+     * @param attempt   单次请求
+     * @param retryable 请求失败后是否允许重试（如响应内容已开始交给调用方处理时不允许重试）
+     * @return 最后一次请求的结果
+     */
+    static HttpResultDto execute(HttpClientParam reqParam, Attempt attempt, BooleanSupplier retryable) {
+        HttpRetryPolicy policy = getRetryPolicy(reqParam);
+        HttpTokenBudget budget = null;
+        if (null != policy) {
+            budget = getBudget(reqParam, policy);
+            budget.onRequest();
+        }
+        for (int attemptCount = 1; ; attemptCount++) {
+            HttpResultDto httpResultDto = new HttpResultDto();
+            Exception exception = null;
+            try {
+                attempt.execute(httpResultDto);
+            } catch (Exception e) {
+                exception = e;
+            }
+            httpResultDto.setRetryCount(attemptCount - 1);
+
+            // 对冲中被中止的请求、被熔断器拒绝的请求不重试
+            long delay = null == policy || HttpHedging.isAttemptCancelled() || httpResultDto.isRejected() || !retryable.getAsBoolean() ? -1
+                    : getRetryDelay(policy, reqParam, attemptCount, httpResultDto, exception);
+            if (delay >= 0 && !budget.tryAcquire()) {
+                BUDGET_EXHAUSTED_COUNT.increment();
+                delay = -1;
+            }
+            if (delay < 0) {
+                if (null != exception) {
+                    HttpClientUtil.handleException(reqParam, exception, httpResultDto);
+                }
+                return httpResultDto;
+            }
+
+            RETRY_COUNT.increment();
+            LOGGER.info("[HttpRetryer][{}][{}] retry after {}ms, attempt={}, statusCode={}, exception={}", reqParam.getMethod(),
+                    reqParam.getRequesturi(), delay, attemptCount, httpResultDto.getStatusCode(), null == exception ? null : exception.toString());
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                HttpClientUtil.handleException(reqParam, null != exception ? exception : e, httpResultDto);
+                return httpResultDto;
+            }
+        }
+    }
+
+    /**
+     * 计算重试前的等待时间
+     *
+     * @return 小于0表示不重试
+     */
+    static long getRetryDelay(HttpRetryPolicy policy, HttpClientParam reqParam, int attemptCount,
+                              HttpResultDto httpResultDto, Exception exception) {
+        if (attemptCount >= policy.getMaxAttempts()) {
+            return -1;
+        }
+        boolean idempotent = policy.isRetryNonIdempotent() || isIdempotent(reqParam.getMethod());
+        if (null != exception) {
+            // 连接建立失败时请求未发出，任何请求方式均可重试
+            if (exception instanceof ConnectTimeoutException || exception instanceof ConnectException
+                    || exception instanceof HttpHostConnectException) {
+                return backoff(policy, attemptCount);
+            }
+            if (!idempotent) {
+                return -1;
+            }
+            if (exception instanceof SocketTimeoutException) {
+                return policy.isRetryOnReadTimeout() ? backoff(policy, attemptCount) : -1;
+            }
+            if (exception instanceof NoHttpResponseException || exception instanceof SocketException) {
+                return backoff(policy, attemptCount);
+            }
+            return -1;
+        }
+
+        int statusCode = httpResultDto.getStatusCode();
+        if (!idempotent || null == policy.getRetryOnStatus() || !policy.getRetryOnStatus().contains(statusCode)) {
+            return -1;
+        }
+        if (policy.isRespectRetryAfter() && (statusCode == 429 || statusCode == 503)) {
+            long retryAfter = getRetryAfter(httpResultDto);
+            if (retryAfter > policy.getMaxRetryAfter()) {
+                return -1;
+            }
+            if (retryAfter >= 0) {
+                return retryAfter;
+            }
+        }
+        return backoff(policy, attemptCount);
+    }
+
+    /**
+     * 指数退避 + 随机缩减
+     */
+    private static long backoff(HttpRetryPolicy policy, int attemptCount) {
+        double backoff = policy.getInitialBackoff() * Math.pow(policy.getMultiplier(), attemptCount - 1);
+        backoff = Math.min(backoff, policy.getMaxBackoff());
+        double jitter = Math.max(0D, Math.min(1D, policy.getJitter()));
+        return (long) (backoff * (1D - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    /**
+     * 解析Retry-After（秒数或HTTP日期），单位毫秒
+     *
+     * @return 未设置或格式不合法时返回-1
+     */
+    private static long getRetryAfter(HttpResultDto httpResultDto) {
+        if (null == httpResultDto.getHeaderFields()) {
+            return -1;
+        }
+        String retryAfter = null;
+        for (Map.Entry<String, List<String>> entry : httpResultDto.getHeaderFields().entrySet()) {
+            if ("Retry-After".equalsIgnoreCase(entry.getKey()) && null != entry.getValue() && !entry.getValue().isEmpty()) {
+                retryAfter = entry.getValue().get(0);
+                break;
+            }
+        }
+        if (StringUtils.isBlank(retryAfter)) {
+            return -1;
+        }
+        retryAfter = retryAfter.trim();
+        if (StringUtils.isNumeric(retryAfter)) {
+            return Long.parseLong(retryAfter) * 1000;
+        }
+        Date date = DateUtils.parseDate(retryAfter);
+        return null == date ? -1 : Math.max(date.getTime() - System.currentTimeMillis(), 0);
+    }
+
+    /**
+     * 是否为幂等的请求方式
+     */
+    static boolean isIdempotent(String method) {
+        return !HttpMethod.POST.name().equals(method) && !HttpMethod.PATCH.name().equals(method);
+    }
+
+    /**
+     * 获取重试策略：按请求设置的优先，其次为连接池设置的
+     */
+    private static HttpRetryPolicy getRetryPolicy(HttpClientParam reqParam) {
+        if (null != reqParam.getRetryPolicy()) {
+            return reqParam.getRetryPolicy();
+        }
+        HttpClientPoolConfig poolConfig = HttpClientExecutorProvider.getPoolConfig(reqParam.getPoolName());
+        return null == poolConfig ? null : poolConfig.getRetryPolicy();
+    }
+
+    private static HttpTokenBudget getBudget(HttpClientParam reqParam, HttpRetryPolicy policy) {
+        String name = StringUtils.isNotBlank(reqParam.getApiName()) ? reqParam.getApiName() : HttpLibs.getHost(reqParam.getRequesturi());
+        BudgetKey key = new BudgetKey(String.valueOf(name), policy.getBudgetRatio(), policy.getBudgetBurst());
+        HttpTokenBudget budget = BUDGET_MAP.get(key);
+        if (null != budget) {
+            return budget;
+        }
+        if (!HttpRetryer.ensureCapacity()) {
+            OverflowBudget overflow = overflowBudget;
+            if (null == overflow || overflow.ratio != key.ratio || overflow.burst != key.burst) {
+                overflow = new OverflowBudget(key.ratio, key.burst);
+                overflowBudget = overflow;
+            }
+            return overflow.budget;
+        }
+        return BUDGET_MAP.computeIfAbsent(key, k -> new HttpTokenBudget(k.ratio, k.burst));
+    }
+
+    /**
+     * 预算数量达到上限时清除闲置的预算（最多每秒清除一次）
+     *
+     * @return false表示清除后仍达到上限
+     */
+    private static boolean ensureCapacity() {
+        if (BUDGET_MAP.size() < maxBudgets) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        long lastEvictTime = LAST_EVICT_TIME.get();
+        if (now - lastEvictTime >= 1000 && LAST_EVICT_TIME.compareAndSet(lastEvictTime, now)) {
+            BUDGET_MAP.entrySet().removeIf(entry -> entry.getValue().isIdle(now, idleTimeout));
+            if (BUDGET_MAP.size() >= maxBudgets) {
+                LOGGER.warn("[HttpRetryer] retry budget count reached the limit " + maxBudgets + ", new keys will share one retry budget");
+            }
+        }
+        return BUDGET_MAP.size() < maxBudgets;
+    }
+
+    /**
+     * 设置重试预算（按接口及预算参数）的数量上限，默认10000
+     */
+    public static void setMaxBudgets(int maxBudgets) {
+        if (maxBudgets <= 0) {
+            throw new IllegalArgumentException("maxBudgets should be greater than 0");
+        }
+        HttpRetryer.maxBudgets = maxBudgets;
+    }
+
+    /**
+     * 设置闲置重试预算的清除时长，单位毫秒，默认10分钟
+     */
+    public static void setIdleTimeout(long idleTimeout) {
+        if (idleTimeout <= 0) {
+            throw new IllegalArgumentException("idleTimeout should be greater than 0");
+        }
+        HttpRetryer.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * 重试次数（累计值）
+     */
+    public static long getRetryCount() {
+        return RETRY_COUNT.sum();
+    }
+
+    /**
+     * 因预算不足未重试的次数（累计值）
+     */
+    public static long getBudgetExhaustedCount() {
+        return BUDGET_EXHAUSTED_COUNT.sum();
+    }
+
+    /**
+     * 重试预算的key：接口及预算参数，预算参数变更后使用新的预算
+     */
+    private static final class BudgetKey {
+
+        private final String name;
+        private final double ratio;
+        private final int burst;
+
+        BudgetKey(String name, double ratio, int burst) {
+            this.name = name;
+            this.ratio = ratio;
+            this.burst = burst;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BudgetKey)) {
+                return false;
+            }
+            BudgetKey that = (BudgetKey) o;
+            return Double.compare(ratio, that.ratio) == 0 && burst == that.burst && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, ratio, burst);
+        }
+    }
+
+    /**
+     * 预算数量超出上限时共用的重试预算
+     */
+    private static final class OverflowBudget {
+
+        private final double ratio;
+        private final int burst;
+        private final HttpTokenBudget budget;
+
+        OverflowBudget(double ratio, int burst) {
+            this.ratio = ratio;
+            this.burst = burst;
+            this.budget = new HttpTokenBudget(ratio, burst);
+        }
+    }
+}
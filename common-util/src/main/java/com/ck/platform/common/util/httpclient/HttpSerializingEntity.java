@@ -0,0 +1,190 @@
+package com.ck.platform.common.util.httpclient;
+
+import com.alibaba.fastjson.JSON;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.Args;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * 延迟序列化的请求体<br>
+ * 发送请求时才将对象序列化为JSON或XML，并直接写入连接的输出流，不生成完整的报文字符串<br>
+ * 1.序列化结果不超过缓冲上限（默认64KB）时，缓存序列化结果并以Content-Length发送（与StringEntity的行为一致），重试时复用<br>
+ * 2.超过缓冲上限时，以分块传输（chunked）的方式边序列化边发送，内存占用与报文大小无关，重试时重新序列化<br>
+ * 注：实体可重复发送（isRepeatable为true），发送期间不应修改被序列化的对象
+ *
+ * @author chenck
+ * @date 2026/10/18 23:10
+ */
+public class HttpSerializingEntity extends AbstractHttpEntity {
+
+    /**
+     * 默认缓冲上限，单位字节
+     */
+    public static final int DEFAULT_BUFFER_LIMIT = 64 * 1024;
+
+    /**
+     * 序列化器：将内容写入Writer
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+        void write(Writer writer) throws IOException;
+    }
+
+    private final BodyWriter bodyWriter;
+    private final Charset charset;
+    private final int bufferLimit;
+    /**
+     * 是否已尝试缓冲
+     */
+    private boolean prepared;
+    /**
+     * 缓冲的序列化结果，超过缓冲上限时为null
+     */
+    private byte[] buffered;
+
+    public HttpSerializingEntity(BodyWriter bodyWriter, ContentType contentType, int bufferLimit) {
+        Args.notNull(bodyWriter, "body writer");
+        Args.notNull(contentType, "content type");
+        Args.notNegative(bufferLimit, "buffer limit");
+        this.bodyWriter = bodyWriter;
+        this.charset = null == contentType.getCharset() ? StandardCharsets.UTF_8 : contentType.getCharset();
+        this.bufferLimit = bufferLimit;
+        setContentType(contentType.toString());
+    }
+
+    /**
+     * 以JSON格式（fastjson，与JSON.toJSONString规则一致）序列化对象
+     */
+    public static HttpSerializingEntity json(Object object, ContentType contentType) {
+        return new HttpSerializingEntity(writer -> JSON.writeJSONString(writer, object), contentType, DEFAULT_BUFFER_LIMIT);
+    }
+
+    /**
+     * 以XML格式（HttpXmlUtil，与HttpXmlUtil.toXml规则一致）序列化Map
+     */
+    public static HttpSerializingEntity xml(Map<String, Object> paramMap, ContentType contentType) {
+        return new HttpSerializingEntity(writer -> HttpXmlUtil.writeXml(writer, paramMap), contentType, DEFAULT_BUFFER_LIMIT);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        prepare();
+        return null == buffered ? -1 : buffered.length;
+    }
+
+    @Override
+    public boolean isChunked() {
+        return getContentLength() < 0;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        prepare();
+        if (null != buffered) {
+            return new ByteArrayInputStream(buffered);
+        }
+        // 需要以输入流的方式读取时（如异步请求），只能完整序列化
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bufferLimit * 2);
+        serialize(out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream outstream) throws IOException {
+        Args.notNull(outstream, "Output stream");
+        prepare();
+        if (null != buffered) {
+            outstream.write(buffered);
+            outstream.flush();
+            return;
+        }
+        serialize(outstream);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * 尝试在缓冲上限内完成序列化，超过上限时放弃缓冲
+     */
+    private void prepare() {
+        if (prepared) {
+            return;
+        }
+        prepared = true;
+        if (bufferLimit <= 0) {
+            return;
+        }
+        LimitedByteArrayOutputStream out = new LimitedByteArrayOutputStream(bufferLimit);
+        try {
+            serialize(out);
+            buffered = out.toByteArray();
+        } catch (BufferLimitExceededException e) {
+            buffered = null;
+        } catch (IOException e) {
+            throw new IllegalStateException("serialize request body error", e);
+        }
+    }
+
+    private void serialize(OutputStream out) throws IOException {
+        // 不关闭Writer，避免关闭连接的输出流
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, charset), 8 * 1024);
+        bodyWriter.write(writer);
+        writer.flush();
+    }
+
+    /**
+     * 超过缓冲上限（以非受检异常跳出序列化器，避免被包装）
+     */
+    private static final class BufferLimitExceededException extends RuntimeException {
+        private static final BufferLimitExceededException INSTANCE = new BufferLimitExceededException();
+
+        private BufferLimitExceededException() {
+            super("buffer limit exceeded", null, false, false);
+        }
+    }
+
+    private static final class LimitedByteArrayOutputStream extends ByteArrayOutputStream {
+        private final int limit;
+
+        LimitedByteArrayOutputStream(int limit) {
+            super(Math.min(limit, 4 * 1024));
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) {
+            if (count + 1 > limit) {
+                throw BufferLimitExceededException.INSTANCE;
+            }
+            super.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (count + len > limit) {
+                throw BufferLimitExceededException.INSTANCE;
+            }
+            super.write(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.Header;
+import org.apache.http.client.config.RequestConfig;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 合并相同的并发请求（single-flight）<br>
+ * 同一时刻相同key的请求只有第一个请求（leader）真正发起调用，其余请求等待并共享leader的结果；leader完成后立即移除key，
+ * 之后的请求重新发起调用（不做缓存）<br>
+ * 合并key由 连接池+请求方式+请求uri+指定header+响应字符集+代理+输出文件 及 Cookie、认证信息对象 组成，只对幂等的GET/HEAD请求生效<br>
+ * 注：cookieStore、credentialsProvider、authCache按对象引用比较，只有同一会话的请求才会合并<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 19:05
+ */
+public class HttpSingleFlight {
+
+    private static final ConcurrentHashMap<FlightKey, CompletableFuture<HttpResultDto>> IN_FLIGHT_MAP = new ConcurrentHashMap<FlightKey, CompletableFuture<HttpResultDto>>();
+    /**
+     * 真正发起调用的请求数
+     */
+    private static final LongAdder LEADER_COUNT = new LongAdder();
+    /**
+     * 被合并（共享结果）的请求数
+     */
+    private static final LongAdder COLLAPSED_COUNT = new LongAdder();
+
+    private HttpSingleFlight() {
+    }
+
+    /**
+     * 判断请求是否可合并
+     */
+    static boolean isApplicable(HttpClientParam reqParam) {
+        if (!reqParam.isSingleFlight()) {
+            return false;
+        }
+        String method = reqParam.getMethod();
+        return HttpMethod.GET.name().equals(method) || HttpMethod.HEAD.name().equals(method);
+    }
+
+    /**
+     * 执行请求，相同key的并发请求只执行一次
+     *
+     * @param key  合并key
+     * @param call 请求调用
+     * @return
+     */
+    static HttpResultDto execute(FlightKey key, Supplier<HttpResultDto> call) {
+        CompletableFuture<HttpResultDto> future = new CompletableFuture<HttpResultDto>();
+        CompletableFuture<HttpResultDto> inFlight = IN_FLIGHT_MAP.putIfAbsent(key, future);
+        if (null != inFlight) {
+            COLLAPSED_COUNT.increment();
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        LEADER_COUNT.increment();
+        try {
+            HttpResultDto httpResultDto = call.get();
+            future.complete(httpResultDto);
+            return httpResultDto;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            IN_FLIGHT_MAP.remove(key, future);
+        }
+    }
+
+    /**
+     * 生成合并key
+     */
+    static FlightKey buildKey(HttpClientParam reqParam, RequestConfig reqConfig) {
+        StringBuilder key = new StringBuilder(128);
+        key.append(reqParam.getPoolName()).append(' ')
+                .append(reqParam.getMethod()).append(' ')
+                .append(reqParam.getRequesturi().trim());
+        List<String> headerNames = reqParam.getSingleFlightHeaders();
+        if (null != headerNames && null != reqParam.getHeaders()) {
+            for (String headerName : headerNames) {
+                key.append('\n').append(headerName).append(':');
+                for (Header header : reqParam.getHeaders()) {
+                    if (header.getName().equalsIgnoreCase(headerName)) {
+                        key.append(header.getValue()).append(',');
+                    }
+                }
+            }
+        }
+        // 不同的响应字符集、代理、输出文件可能得到不同的结果，不合并
+        if (null != reqParam.getCharset()) {
+            key.append("\ncharset:").append(reqParam.getCharset());
+        }
+        if (null != reqConfig && null != reqConfig.getProxy()) {
+            key.append("\nproxy:").append(reqConfig.getProxy().toURI());
+        }
+        if (null != reqParam.getOutFilePath()) {
+            key.append("\nout:").append(reqParam.getOutFilePath());
+        }
+        return new FlightKey(key.toString(), reqParam.getCookieStore(), reqParam.getCredentialsProvider(), reqParam.getAuthCache());
+    }
+
+    /**
+     * 真正发起调用的请求数（累计值）
+     */
+    public static long getLeaderCount() {
+        return LEADER_COUNT.sum();
+    }
+
+    /**
+     * 被合并（共享结果）的请求数（累计值）
+     */
+    public static long getCollapsedCount() {
+        return COLLAPSED_COUNT.sum();
+    }
+
+    /**
+     * 当前进行中的合并key数量
+     */
+    public static int getInFlightCount() {
+        return IN_FLIGHT_MAP.size();
+    }
+
+    /**
+     * 合并key：请求描述按内容比较，会话对象（Cookie、认证信息）按引用比较，不同会话的请求不会被合并
+     */
+    static final class FlightKey {
+        private final String request;
+        private final Object cookieStore;
+        private final Object credentialsProvider;
+        private final Object authCache;
+        private final int hash;
+
+        FlightKey(String request, Object cookieStore, Object credentialsProvider, Object authCache) {
+            this.request = request;
+            this.cookieStore = cookieStore;
+            this.credentialsProvider = credentialsProvider;
+            this.authCache = authCache;
+            this.hash = Objects.hash(request, System.identityHashCode(cookieStore),
+                    System.identityHashCode(credentialsProvider), System.identityHashCode(authCache));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FlightKey)) {
+                return false;
+            }
+            FlightKey other = (FlightKey) o;
+            return hash == other.hash && request.equals(other.request) && cookieStore == other.cookieStore
+                    && credentialsProvider == other.credentialsProvider && authCache == other.authCache;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return request;
+        }
+    }
+}
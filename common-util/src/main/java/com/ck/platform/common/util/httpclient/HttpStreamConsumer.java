@@ -0,0 +1,29 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * 响应内容流式处理器<br>
+ * 用于大报文场景下以有限内存增量解析响应内容，避免先将整个响应体读取为字符串<br>
+ * 如需按字符读取，可通过 new InputStreamReader(in, charset) 包装
+ *
+ * @author chenck
+ * @date 2026/10/18 14:05
+ */
+@FunctionalInterface
+public interface HttpStreamConsumer<T> {
+
+    /**
+     * 处理响应内容
+     *
+     * @param in       响应输入流（已处理Content-Encoding解压），只在方法执行期间有效，无需自行关闭
+     * @param charset  根据响应头和HttpClientParam.charset确定的字符集
+     * @param response 响应（可获取状态行、响应头）
+     * @return 处理结果，设置到HttpResultDto.bizDataObj
+     */
+    T consume(InputStream in, Charset charset, HttpResponse response) throws IOException;
+}
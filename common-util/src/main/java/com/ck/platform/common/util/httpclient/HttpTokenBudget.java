@@ -0,0 +1,74 @@
+package com.ck.platform.common.util.httpclient;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按请求比例积累的令牌预算（用于限制对冲、重试等额外请求的比例）<br>
+ * 每个请求积累ratio个令牌，每次额外请求消耗1个令牌，令牌最多积累burst个<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 20:40
+ */
+class HttpTokenBudget {
+
+    /**
+     * 令牌精度（1/1000个令牌）
+     */
+    private static final long TOKEN_UNIT = 1000;
+
+    private final AtomicLong tokens;
+    private final long maxTokens;
+    private final long tokensPerRequest;
+    /**
+     * 最后一次记录请求的时间（精度1秒），用于清除闲置的预算
+     */
+    private volatile long lastRequestTime = System.currentTimeMillis();
+
+    HttpTokenBudget(double ratio, int burst) {
+        this.maxTokens = burst * TOKEN_UNIT;
+        this.tokensPerRequest = (long) (ratio * TOKEN_UNIT);
+        this.tokens = new AtomicLong(maxTokens);
+    }
+
+    /**
+     * 记录一次请求，积累令牌
+     */
+    void onRequest() {
+        long now = System.currentTimeMillis();
+        if (now - lastRequestTime >= 1000) {
+            lastRequestTime = now;
+        }
+        tokens.accumulateAndGet(tokensPerRequest, (current, add) -> Math.min(maxTokens, current + add));
+    }
+
+    /**
+     * 尝试消耗1个令牌
+     *
+     * @return false表示预算不足
+     */
+    boolean tryAcquire() {
+        while (true) {
+            long current = tokens.get();
+            if (current < TOKEN_UNIT) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - TOKEN_UNIT)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 是否已闲置（超过idleMillis没有请求）
+     */
+    boolean isIdle(long now, long idleMillis) {
+        return now - lastRequestTime >= idleMillis;
+    }
+
+    /**
+     * 当前可用的令牌数
+     */
+    double getAvailable() {
+        return (double) tokens.get() / TOKEN_UNIT;
+    }
+}
@@ -0,0 +1,46 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
+
+import java.io.IOException;
+
+/**
+ * HTTP传输层SPI<br>
+ * 同步请求（HttpClientUtil.invoke）通过连接池对应的传输层发送，响应统一以HttpClient 4.x的HttpResponse交给ResponseHandler处理，
+ * 上层的响应处理、重试、熔断、日志等逻辑与传输层实现无关<br>
+ * 1.apache（默认）：基于Apache HttpClient 4.x，HTTP/1.1<br>
+ * 2.jdk：基于JDK 11+的java.net.http.HttpClient，支持HTTP/2多路复用（同一合作方的并发请求共用一个TCP连接），
+ * 以多版本jar（META-INF/versions/11）提供，JDK 8下不可用时回退为apache<br>
+ * 注：按连接池选择，见 HttpClientPoolConfig.transport
+ *
+ * @author chenck
+ * @date 2026/10/18 23:45
+ */
+public interface HttpTransport {
+
+    /**
+     * Apache HttpClient 4.x（默认）
+     */
+    String APACHE = "apache";
+    /**
+     * JDK 11+ java.net.http.HttpClient（HTTP/2）
+     */
+    String JDK = "jdk";
+
+    /**
+     * 传输层名称
+     */
+    String getName();
+
+    /**
+     * 执行同步请求，并通过responseHandler处理响应<br>
+     * 注：responseHandler执行完成后需关闭响应输入流并释放连接
+     *
+     * @param reqParam        请求参数
+     * @param reqConfig       请求配置
+     * @param responseHandler 响应处理器
+     * @return
+     */
+    <T> T execute(HttpClientParam reqParam, RequestConfig reqConfig, ResponseHandler<T> responseHandler) throws IOException;
+}
@@ -0,0 +1,279 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 预编译的URL模板<br>
+ * 支持 {0} 下标占位符与 {name} 命名占位符，如 https://test.com/user/{0}/page?appid={appid}&code={1}<br>
+ * 1.模板只解析一次并按模板字符串缓存，渲染时不再解析，也不按Locale格式化数字（如id不会被格式化为 1,234）<br>
+ * 2.占位符的值按所在的URI组成部分进行百分号编码：路径中按路径段编码（含/），查询串及片段中按参数值编码（含&amp;、=、+、#）；
+ * 协议及主机部分的占位符不编码（如 {baseUrl}/user/{0}）<br>
+ * 注：值为null时渲染为空字符串，缺少对应值的占位符原样保留（与MessageFormat一致），
+ * 兼容MessageFormat的 {0,number,#} 写法（忽略格式类型，按String.valueOf渲染）<br>
+ * 注：值会被编码，已编码的值需先解码再传入，避免重复编码<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 22:20
+ */
+public final class HttpUrlTemplate {
+
+    /**
+     * 最多缓存的模板数，超过后编译的模板不再缓存（避免将动态拼接的url作为模板时占用过多内存）
+     */
+    private static final int MAX_CACHED_TEMPLATES = 1024;
+    private static final ConcurrentHashMap<String, HttpUrlTemplate> TEMPLATE_CACHE = new ConcurrentHashMap<String, HttpUrlTemplate>();
+
+    /**
+     * 不编码
+     */
+    private static final int COMPONENT_RAW = 0;
+    /**
+     * 路径段
+     */
+    private static final int COMPONENT_PATH = 1;
+    /**
+     * 查询串参数值及片段
+     */
+    private static final int COMPONENT_QUERY = 2;
+
+    /**
+     * 各组成部分中无需编码的ASCII字符
+     */
+    private static final boolean[] PATH_SAFE = new boolean[128];
+    private static final boolean[] QUERY_SAFE = new boolean[128];
+
+    static {
+        String unreserved = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-._~";
+        for (char c : unreserved.toCharArray()) {
+            PATH_SAFE[c] = true;
+            QUERY_SAFE[c] = true;
+        }
+        for (char c : "!$&'()*+,;=:@".toCharArray()) {
+            PATH_SAFE[c] = true;
+        }
+        for (char c : "!$'()*,;:@/?".toCharArray()) {
+            QUERY_SAFE[c] = true;
+        }
+    }
+
+    private final String pattern;
+    /**
+     * 字面量片段，与占位符交替排列：literals[0] placeholders[0] literals[1] ... literals[n]
+     */
+    private final String[] literals;
+    private final String[] names;
+    /**
+     * 占位符的下标，命名占位符为-1
+     */
+    private final int[] indexes;
+    private final int[] components;
+    private final int literalLength;
+
+    private HttpUrlTemplate(String pattern) {
+        this.pattern = pattern;
+        List<String> literalList = new ArrayList<String>();
+        List<String> nameList = new ArrayList<String>();
+        List<Integer> componentList = new ArrayList<Integer>();
+
+        StringBuilder prefix = new StringBuilder(pattern.length());
+        int literalStart = 0;
+        int pos = 0;
+        while (pos < pattern.length()) {
+            int open = pattern.indexOf('{', pos);
+            if (open < 0) {
+                break;
+            }
+            int close = pattern.indexOf('}', open + 1);
+            String name = close < 0 ? null : parseName(pattern.substring(open + 1, close));
+            if (null == name) {
+                pos = open + 1;
+                continue;
+            }
+            String literal = pattern.substring(literalStart, open);
+            literalList.add(literal);
+            prefix.append(literal);
+            nameList.add(name);
+            componentList.add(resolveComponent(prefix));
+            pos = literalStart = close + 1;
+        }
+        literalList.add(pattern.substring(literalStart));
+
+        this.literals = literalList.toArray(new String[0]);
+        this.names = nameList.toArray(new String[0]);
+        this.indexes = new int[names.length];
+        this.components = new int[names.length];
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        for (int i = 0; i < names.length; i++) {
+            this.indexes[i] = isIndex(names[i]) ? Integer.parseInt(names[i]) : -1;
+            this.components[i] = componentList.get(i);
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * 编译URL模板（按模板字符串缓存）
+     *
+     * @param pattern 模板，如 https://test.com/page?appid={0}&code={1}
+     */
+    public static HttpUrlTemplate compile(String pattern) {
+        if (null == pattern) {
+            throw new IllegalArgumentException("url template should not be null");
+        }
+        HttpUrlTemplate template = TEMPLATE_CACHE.get(pattern);
+        if (null != template) {
+            return template;
+        }
+        template = new HttpUrlTemplate(pattern);
+        if (TEMPLATE_CACHE.size() < MAX_CACHED_TEMPLATES) {
+            HttpUrlTemplate existing = TEMPLATE_CACHE.putIfAbsent(pattern, template);
+            if (null != existing) {
+                return existing;
+            }
+        }
+        return template;
+    }
+
+    /**
+     * 按下标渲染（UTF-8编码）
+     */
+    public String render(List<?> values) {
+        return render(values, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 按下标渲染
+     */
+    public String render(List<?> values, Charset charset) {
+        if (names.length == 0) {
+            return pattern;
+        }
+        return render(new StringBuilder(literalLength + 16 * names.length), values, charset).toString();
+    }
+
+    /**
+     * 按下标渲染到指定的StringBuilder（可复用）
+     */
+    public StringBuilder render(StringBuilder sb, List<?> values, Charset charset) {
+        for (int i = 0; i < names.length; i++) {
+            sb.append(literals[i]);
+            int index = indexes[i];
+            if (index >= 0 && null != values && index < values.size()) {
+                appendEncoded(sb, values.get(index), components[i], charset);
+            } else {
+                appendPlaceholder(sb, i);
+            }
+        }
+        return sb.append(literals[names.length]);
+    }
+
+    /**
+     * 按名称渲染（UTF-8编码），下标占位符按 "0"、"1" 等名称取值
+     */
+    public String render(Map<String, ?> values) {
+        return render(values, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 按名称渲染，下标占位符按 "0"、"1" 等名称取值
+     */
+    public String render(Map<String, ?> values, Charset charset) {
+        if (names.length == 0) {
+            return pattern;
+        }
+        return render(new StringBuilder(literalLength + 16 * names.length), values, charset).toString();
+    }
+
+    /**
+     * 按名称渲染到指定的StringBuilder（可复用）
+     */
+    public StringBuilder render(StringBuilder sb, Map<String, ?> values, Charset charset) {
+        for (int i = 0; i < names.length; i++) {
+            sb.append(literals[i]);
+            if (null != values && values.containsKey(names[i])) {
+                appendEncoded(sb, values.get(names[i]), components[i], charset);
+            } else {
+                appendPlaceholder(sb, i);
+            }
+        }
+        return sb.append(literals[names.length]);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * 占位符数量
+     */
+    public int getPlaceholderCount() {
+        return names.length;
+    }
+
+    private void appendPlaceholder(StringBuilder sb, int i) {
+        sb.append('{').append(names[i]).append('}');
+    }
+
+    /**
+     * 按所在组成部分对值进行百分号编码
+     */
+    static void appendEncoded(StringBuilder sb, Object value, int component, Charset charset) {
+        if (null == value) {
+            return;
+        }
+        String str = value.toString();
+        if (component == COMPONENT_RAW) {
+            sb.append(str);
+            return;
+        }
+        HttpQueryEncoder.appendEncoded(sb, str, 0, str.length(), component == COMPONENT_PATH ? PATH_SAFE : QUERY_SAFE, false, charset);
+    }
+
+    /**
+     * 解析占位符名称，兼容 {0,number,#} 写法，名称不合法时返回null（按字面量处理）
+     */
+    private static String parseName(String content) {
+        int comma = content.indexOf(',');
+        String name = (comma < 0 ? content : content.substring(0, comma)).trim();
+        if (name.isEmpty()) {
+            return null;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+                return null;
+            }
+        }
+        return name;
+    }
+
+    private static boolean isIndex(String name) {
+        return name.length() <= 9 && StringUtils.isNumeric(name);
+    }
+
+    /**
+     * 根据占位符之前的内容判断占位符所在的URI组成部分
+     */
+    private static int resolveComponent(CharSequence prefix) {
+        String str = prefix.toString();
+        if (str.indexOf('?') >= 0 || str.indexOf('#') >= 0) {
+            return COMPONENT_QUERY;
+        }
+        int schemeEnd = str.indexOf("://");
+        if (schemeEnd >= 0) {
+            // 主机之后的内容为路径
+            return str.indexOf('/', schemeEnd + 3) >= 0 ? COMPONENT_PATH : COMPONENT_RAW;
+        }
+        // 相对路径
+        return str.startsWith(HttpLibs.MARK_SLASH) ? COMPONENT_PATH : COMPONENT_RAW;
+    }
+}
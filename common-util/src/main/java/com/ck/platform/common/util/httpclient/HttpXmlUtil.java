@@ -0,0 +1,187 @@
+package com.ck.platform.common.util.httpclient;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 基于StAX的XML报文工具类<br>
+ * 报文格式为扁平或嵌套的元素结构，如：&lt;xml&gt;&lt;appid&gt;1&lt;/appid&gt;&lt;/xml&gt;（如微信支付报文）<br>
+ * 1.Map转换为XML时，嵌套Map转换为子元素，Collection转换为重复元素<br>
+ * 2.XML转换为JSONObject时，有子元素的元素转换为JSONObject，重复元素转换为JSONArray，其余转换为字符串<br>
+ * 注：解析时禁用DTD和外部实体，防止XXE攻击
+ *
+ * @author chenck
+ * @date 2026/10/18 15:10
+ */
+public class HttpXmlUtil {
+
+    /**
+     * 默认根元素名称
+     */
+    public static final String ROOT_ELEMENT = "xml";
+
+    private static final XMLInputFactory INPUT_FACTORY;
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    static {
+        INPUT_FACTORY = XMLInputFactory.newInstance();
+        INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    private HttpXmlUtil() {
+    }
+
+    /**
+     * Map转换为XML字符串
+     *
+     * @param paramMap 参数
+     * @return
+     */
+    public static String toXml(Map<String, Object> paramMap) {
+        StringWriter writer = new StringWriter();
+        try {
+            writeXml(writer, paramMap);
+        } catch (IOException e) {
+            throw new IllegalStateException("build xml error", e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * 将Map以XML格式写入writer
+     *
+     * @param writer   输出
+     * @param paramMap 参数
+     */
+    public static void writeXml(Writer writer, Map<String, Object> paramMap) throws IOException {
+        try {
+            XMLStreamWriter xmlWriter = OUTPUT_FACTORY.createXMLStreamWriter(writer);
+            xmlWriter.writeStartElement(ROOT_ELEMENT);
+            writeElements(xmlWriter, paramMap);
+            xmlWriter.writeEndElement();
+            xmlWriter.flush();
+            xmlWriter.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("write xml error", e);
+        }
+    }
+
+    private static void writeElements(XMLStreamWriter xmlWriter, Map<?, ?> paramMap) throws XMLStreamException {
+        if (null == paramMap) {
+            return;
+        }
+        for (Map.Entry<?, ?> entry : paramMap.entrySet()) {
+            Object value = entry.getValue();
+            if (null == value) {
+                continue;
+            }
+            String name = String.valueOf(entry.getKey());
+            if (value instanceof Collection) {
+                for (Object item : (Collection<?>) value) {
+                    writeElement(xmlWriter, name, item);
+                }
+            } else {
+                writeElement(xmlWriter, name, value);
+            }
+        }
+    }
+
+    private static void writeElement(XMLStreamWriter xmlWriter, String name, Object value) throws XMLStreamException {
+        if (null == value) {
+            return;
+        }
+        xmlWriter.writeStartElement(name);
+        if (value instanceof Map) {
+            writeElements(xmlWriter, (Map<?, ?>) value);
+        } else {
+            xmlWriter.writeCharacters(String.valueOf(value));
+        }
+        xmlWriter.writeEndElement();
+    }
+
+    /**
+     * 以流的方式解析XML（不构建完整的报文字符串），返回根元素对应的JSONObject
+     *
+     * @param in      输入流
+     * @param charset 字符集
+     * @return
+     */
+    public static JSONObject parse(InputStream in, Charset charset) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = INPUT_FACTORY.createXMLStreamReader(in, charset.name());
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    Object root = readElement(reader);
+                    return root instanceof JSONObject ? (JSONObject) root : new JSONObject();
+                }
+            }
+            return new JSONObject();
+        } catch (XMLStreamException e) {
+            throw new IOException("parse xml error", e);
+        } finally {
+            if (null != reader) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignore) {
+                }
+            }
+        }
+    }
+
+    /**
+     * 读取当前元素（游标位于START_ELEMENT），有子元素时返回JSONObject，否则返回文本内容
+     */
+    private static Object readElement(XMLStreamReader reader) throws XMLStreamException {
+        JSONObject children = null;
+        StringBuilder text = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (null == children) {
+                    children = new JSONObject(true);
+                }
+                String name = reader.getLocalName();
+                Object value = readElement(reader);
+                Object exists = children.get(name);
+                if (null == exists) {
+                    children.put(name, value);
+                } else if (exists instanceof JSONArray) {
+                    ((JSONArray) exists).add(value);
+                } else {
+                    JSONArray array = new JSONArray();
+                    array.add(exists);
+                    array.add(value);
+                    children.put(name, array);
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                if (null == text) {
+                    text = new StringBuilder();
+                }
+                text.append(reader.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+        }
+        if (null != children) {
+            return children;
+        }
+        return null == text ? "" : text.toString();
+    }
+}
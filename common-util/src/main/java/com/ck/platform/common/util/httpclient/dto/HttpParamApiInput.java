@@ -28,6 +28,7 @@ public class HttpParamApiInput<T extends HttpApiResult> extends HttpApiInput<T>
     /**
      * url参数List，用于url参数按照格式化模式(FORMAT)构建<br/>
      * 按照格式化方式构建，如https://test.com/page?appid={0}&code={1}<br>
+     * 注：参数值按所在的URI组成部分进行百分号编码，见 HttpUrlTemplate<br>
      */
     @JSONField(serialize = false)
     protected List<Object> urlParamList;
@@ -0,0 +1,67 @@
+package com.ck.platform.common.util.httpclient.metrics;
+
+import org.apache.http.client.cache.CacheResponseStatus;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HttpClient响应缓存计数器
+ *
+ * @author chenck
+ * @date 2026/10/18 18:42
+ */
+public class HttpCacheCounter {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder validated = new LongAdder();
+    private final LongAdder moduleResponses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    /**
+     * 记录一次请求的缓存状态
+     *
+     * @param status 缓存状态，为null时不记录
+     */
+    public void record(CacheResponseStatus status) {
+        if (null == status) {
+            return;
+        }
+        switch (status) {
+            case CACHE_HIT:
+                hits.increment();
+                break;
+            case CACHE_MISS:
+                misses.increment();
+                break;
+            case VALIDATED:
+                validated.increment();
+                break;
+            case CACHE_MODULE_RESPONSE:
+                moduleResponses.increment();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 记录一次绕过缓存的请求
+     */
+    public void recordBypass() {
+        bypassed.increment();
+    }
+
+    /**
+     * 获取快照
+     */
+    public HttpCacheStats snapshot() {
+        HttpCacheStats stats = new HttpCacheStats();
+        stats.setHits(hits.sum());
+        stats.setMisses(misses.sum());
+        stats.setValidated(validated.sum());
+        stats.setModuleResponses(moduleResponses.sum());
+        stats.setBypassed(bypassed.sum());
+        return stats;
+    }
+}
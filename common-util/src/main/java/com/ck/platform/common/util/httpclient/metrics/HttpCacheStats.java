@@ -0,0 +1,42 @@
+package com.ck.platform.common.util.httpclient.metrics;
+
+import lombok.Data;
+
+/**
+ * HttpClient响应缓存统计信息（累计值）
+ *
+ * @author chenck
+ * @date 2026/10/18 18:40
+ */
+@Data
+public class HttpCacheStats {
+
+    /**
+     * 直接由缓存返回响应的次数
+     */
+    private long hits;
+    /**
+     * 未命中缓存、请求服务端的次数
+     */
+    private long misses;
+    /**
+     * 缓存过期后，通过条件请求（If-None-Match/If-Modified-Since）向服务端校验，并由缓存返回响应的次数
+     */
+    private long validated;
+    /**
+     * 由缓存模块直接生成响应的次数（如请求不合法、only-if-cached未命中时返回的504）
+     */
+    private long moduleResponses;
+    /**
+     * 携带会话信息（Cookie、认证信息）而绕过缓存的请求次数
+     */
+    private long bypassed;
+
+    /**
+     * 缓存命中率（含校验后命中）
+     */
+    public double getHitRatio() {
+        long total = hits + misses + validated;
+        return total == 0 ? 0D : (double) (hits + validated) / total;
+    }
+}
@@ -0,0 +1,46 @@
+package com.ck.platform.common.util.httpclient.metrics;
+
+import lombok.Data;
+
+/**
+ * 熔断器及自适应并发限制统计信息
+ *
+ * @author chenck
+ * @date 2026/10/18 19:45
+ */
+@Data
+public class HttpCircuitBreakerStats {
+
+    /**
+     * 熔断器名称（apiName或主机地址）
+     */
+    private String name;
+    /**
+     * 熔断器状态：CLOSED、OPEN、HALF_OPEN
+     */
+    private String state;
+    /**
+     * 当前滑动窗口内的调用次数
+     */
+    private int bufferedCalls;
+    /**
+     * 当前滑动窗口内的失败率（百分比）
+     */
+    private float failureRate;
+    /**
+     * 当前滑动窗口内的慢调用率（百分比）
+     */
+    private float slowCallRate;
+    /**
+     * 被拒绝的调用次数（累计值，含熔断和超过并发限制）
+     */
+    private long rejectedCalls;
+    /**
+     * 当前并发限制，未启用自适应并发限制时为0
+     */
+    private int concurrencyLimit;
+    /**
+     * 进行中的调用数，未启用自适应并发限制时为0
+     */
+    private int inFlight;
+}
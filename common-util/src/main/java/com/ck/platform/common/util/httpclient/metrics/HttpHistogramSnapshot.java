@@ -0,0 +1,47 @@
+package com.ck.platform.common.util.httpclient.metrics;
+
+import lombok.Data;
+
+/**
+ * 直方图快照
+ * 注：值的单位与记录时的单位一致（如微秒）
+ *
+ * @author chenck
+ * @date 2026/10/18 16:40
+ */
+@Data
+public class HttpHistogramSnapshot {
+
+    /**
+     * 记录次数
+     */
+    private long count;
+    /**
+     * 最小值
+     */
+    private long min;
+    /**
+     * 最大值
+     */
+    private long max;
+    /**
+     * 平均值
+     */
+    private double mean;
+    /**
+     * 50分位值
+     */
+    private long p50;
+    /**
+     * 90分位值
+     */
+    private long p90;
+    /**
+     * 99分位值
+     */
+    private long p99;
+    /**
+     * 99.9分位值
+     */
+    private long p999;
+}
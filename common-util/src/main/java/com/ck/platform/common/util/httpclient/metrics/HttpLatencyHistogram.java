@@ -0,0 +1,152 @@
+package com.ck.platform.common.util.httpclient.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁、固定内存的耗时直方图（参考HdrHistogram的对数线性分桶思想）
+ * <p>
+ * 分桶规则：小于16的值每个值一个桶；大于等于16的值，按2的幂次分段，每段再线性划分为16个子桶，相对误差不超过1/16（约6%）。
+ * 最大可记录值为2^40-1（按微秒计约12天），超过的值计入最后一个桶。整个直方图只占用约600个long的内存，与记录次数无关。
+ * <p>
+ * 注：记录值的单位由使用方决定（如微秒），快照中的值与记录值单位一致
+ *
+ * @author chenck
+ * @date 2026/10/18 16:40
+ */
+public class HttpLatencyHistogram {
+
+    /**
+     * 每个2的幂次分段中的子桶数量的位数（2^4=16个子桶）
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /**
+     * 最大可记录值的位数
+     */
+    private static final int MAX_VALUE_BITS = 40;
+    public static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * 记录一个值（负数按0记录）
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(bucketIndex(Math.min(value, MAX_VALUE)));
+        count.increment();
+        sum.add(value);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * 获取快照
+     */
+    public HttpHistogramSnapshot snapshot() {
+        return snapshot(false);
+    }
+
+    /**
+     * 获取快照并重置（适用于按周期采集的场景）
+     * 注：重置过程不加锁，并发记录的值可能计入本周期或下一周期
+     */
+    public HttpHistogramSnapshot snapshotAndReset() {
+        return snapshot(true);
+    }
+
+    private HttpHistogramSnapshot snapshot(boolean reset) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = reset ? buckets.getAndSet(i, 0) : buckets.get(i);
+            total += counts[i];
+        }
+        long sumValue = reset ? sum.sumThenReset() : sum.sum();
+        long minValue = reset ? min.getAndSet(Long.MAX_VALUE) : min.get();
+        long maxValue = reset ? max.getAndSet(0) : max.get();
+        if (reset) {
+            count.reset();
+        }
+
+        HttpHistogramSnapshot snapshot = new HttpHistogramSnapshot();
+        snapshot.setCount(total);
+        if (total == 0) {
+            return snapshot;
+        }
+        snapshot.setMin(minValue == Long.MAX_VALUE ? 0 : minValue);
+        snapshot.setMax(maxValue);
+        snapshot.setMean((double) sumValue / total);
+        snapshot.setP50(percentile(counts, total, 0.5D, maxValue));
+        snapshot.setP90(percentile(counts, total, 0.9D, maxValue));
+        snapshot.setP99(percentile(counts, total, 0.99D, maxValue));
+        snapshot.setP999(percentile(counts, total, 0.999D, maxValue));
+        return snapshot;
+    }
+
+    /**
+     * 获取指定百分位的值（非重置）
+     *
+     * @param percentile 百分位，取值范围(0,1]，如0.99
+     * @return 无记录时返回0
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        return percentile(counts, total, percentile, max.get());
+    }
+
+    /**
+     * 记录次数
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    private static long percentile(long[] counts, long total, double percentile, long maxValue) {
+        long target = (long) Math.ceil(total * percentile);
+        long accumulated = 0;
+        for (int i = 0; i < counts.length; i++) {
+            accumulated += counts[i];
+            if (accumulated >= target) {
+                // 取桶的上界，但不超过记录到的最大值
+                return Math.min(bucketUpperBound(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exp - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exp - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + sub;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exp = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKET_COUNT;
+        return ((long) (SUB_BUCKET_COUNT + sub + 1) << (exp - SUB_BUCKET_BITS)) - 1;
+    }
+}
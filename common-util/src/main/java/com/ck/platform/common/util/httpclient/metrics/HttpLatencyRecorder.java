@@ -0,0 +1,156 @@
+package com.ck.platform.common.util.httpclient.metrics;
+
+import com.ck.platform.common.util.httpclient.HttpClientParam;
+import com.ck.platform.common.util.httpclient.HttpLibs;
+import com.ck.platform.common.util.httpclient.HttpResultDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求耗时记录器<br>
+ * 按连接池名称、路由（主机地址）、接口名称（HttpClientParam.apiName，如 HttpApiAnno.name）及请求结果（成功、失败、超时）分组，
+ * 以无锁、固定内存的直方图（{@link HttpLatencyHistogram}）记录请求耗时，用于按接口/合作方采集耗时指标<br>
+ * 注：被熔断器拒绝（REJECTED）的请求未发起调用，不记录耗时<br>
+ * 注：分组数超过上限（默认10000）后，新的分组不再记录，避免请求地址不可控时占用过多内存<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 21:45
+ */
+public class HttpLatencyRecorder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpLatencyRecorder.class);
+
+    private static final ConcurrentHashMap<LatencyKey, HttpLatencyHistogram> HISTOGRAM_MAP = new ConcurrentHashMap<LatencyKey, HttpLatencyHistogram>();
+    private static volatile boolean enabled = true;
+    private static volatile int maxKeys = 10000;
+
+    private HttpLatencyRecorder() {
+    }
+
+    /**
+     * 记录请求耗时
+     *
+     * @param reqParam      请求参数
+     * @param httpResultDto 请求结果
+     * @param elapsedNanos  请求耗时，单位纳秒
+     */
+    public static void record(HttpClientParam reqParam, HttpResultDto httpResultDto, long elapsedNanos) {
+        if (!enabled || null == reqParam || null == httpResultDto || httpResultDto.isRejected()) {
+            return;
+        }
+        LatencyKey key = new LatencyKey(reqParam.getPoolName(), HttpLibs.getHost(reqParam.getRequesturi()),
+                reqParam.getApiName(), httpResultDto.getRetCode());
+        HttpLatencyHistogram histogram = HISTOGRAM_MAP.get(key);
+        if (null == histogram) {
+            if (HISTOGRAM_MAP.size() >= maxKeys) {
+                return;
+            }
+            histogram = HISTOGRAM_MAP.computeIfAbsent(key, k -> new HttpLatencyHistogram());
+            if (HISTOGRAM_MAP.size() == maxKeys) {
+                LOGGER.warn("[HttpLatencyRecorder] latency key count reached the limit " + maxKeys + ", new keys will not be recorded");
+            }
+        }
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    }
+
+    /**
+     * 获取所有分组的耗时统计快照
+     */
+    public static List<HttpLatencyStats> getStats() {
+        return snapshot(false);
+    }
+
+    /**
+     * 获取所有分组的耗时统计快照并重置（适用于按周期采集的场景）
+     */
+    public static List<HttpLatencyStats> getStatsAndReset() {
+        return snapshot(true);
+    }
+
+    /**
+     * 清除所有分组（含分组本身）
+     */
+    public static void clear() {
+        HISTOGRAM_MAP.clear();
+    }
+
+    /**
+     * 设置是否记录耗时，默认true
+     */
+    public static void setEnabled(boolean enabled) {
+        HttpLatencyRecorder.enabled = enabled;
+    }
+
+    /**
+     * 设置分组数上限，默认10000
+     */
+    public static void setMaxKeys(int maxKeys) {
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("maxKeys should be greater than 0");
+        }
+        HttpLatencyRecorder.maxKeys = maxKeys;
+    }
+
+    private static List<HttpLatencyStats> snapshot(boolean reset) {
+        List<HttpLatencyStats> list = new ArrayList<HttpLatencyStats>(HISTOGRAM_MAP.size());
+        for (Map.Entry<LatencyKey, HttpLatencyHistogram> entry : HISTOGRAM_MAP.entrySet()) {
+            HttpHistogramSnapshot latency = reset ? entry.getValue().snapshotAndReset() : entry.getValue().snapshot();
+            if (reset && latency.getCount() == 0) {
+                continue;
+            }
+            LatencyKey key = entry.getKey();
+            HttpLatencyStats stats = new HttpLatencyStats();
+            stats.setPoolName(key.poolName);
+            stats.setRoute(key.route);
+            stats.setApiName(key.apiName);
+            stats.setOutcome(key.outcome);
+            stats.setLatency(latency);
+            list.add(stats);
+        }
+        return list;
+    }
+
+    /**
+     * 分组key
+     */
+    private static final class LatencyKey {
+        private final String poolName;
+        private final String route;
+        private final String apiName;
+        private final String outcome;
+        private final int hash;
+
+        LatencyKey(String poolName, String route, String apiName, String outcome) {
+            this.poolName = null == poolName ? "" : poolName;
+            this.route = null == route ? "" : route;
+            this.apiName = null == apiName ? "" : apiName;
+            this.outcome = null == outcome ? "" : outcome;
+            this.hash = Objects.hash(this.poolName, this.route, this.apiName, this.outcome);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LatencyKey)) {
+                return false;
+            }
+            LatencyKey other = (LatencyKey) o;
+            return hash == other.hash && poolName.equals(other.poolName) && route.equals(other.route)
+                    && apiName.equals(other.apiName) && outcome.equals(other.outcome);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ck.platform.common.util.httpclient.metrics;
+
+import lombok.Data;
+
+/**
+ * 请求耗时统计信息（按连接池、路由、接口名称及结果分组）
+ *
+ * @author chenck
+ * @date 2026/10/18 21:40
+ */
+@Data
+public class HttpLatencyStats {
+
+    /**
+     * 连接池名称
+     */
+    private String poolName;
+    /**
+     * 路由（请求的主机地址，如 https://api.test.com）
+     */
+    private String route;
+    /**
+     * 接口名称（如 HttpApiAnno.name），未设置时为空字符串
+     */
+    private String apiName;
+    /**
+     * 请求结果：T（成功）、F（失败）、timeout（超时），与HttpResultDto.retCode一致
+     */
+    private String outcome;
+    /**
+     * 请求耗时（单位：微秒，含重试）
+     */
+    private HttpHistogramSnapshot latency;
+}
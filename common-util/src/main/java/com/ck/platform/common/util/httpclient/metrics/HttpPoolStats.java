@@ -0,0 +1,80 @@
+package com.ck.platform.common.util.httpclient.metrics;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * HttpClient连接池统计信息
+ *
+ * @author chenck
+ * @date 2026/10/18 16:52
+ */
+@Data
+public class HttpPoolStats {
+
+    /**
+     * 连接池名称
+     */
+    private String poolName;
+    /**
+     * 已租用（正在使用）的连接数
+     */
+    private int leased;
+    /**
+     * 空闲可用的连接数
+     */
+    private int available;
+    /**
+     * 等待获取连接的请求数
+     */
+    private int pending;
+    /**
+     * 最大连接数
+     */
+    private int max;
+    /**
+     * 单路由的默认最大连接数
+     */
+    private int defaultMaxPerRoute;
+    /**
+     * 从连接池获取连接的等待耗时（单位：微秒）
+     */
+    private HttpHistogramSnapshot leaseWait;
+    /**
+     * 因过期被清除的连接数（累计值）
+     */
+    private long evictedExpired;
+    /**
+     * 因空闲超时被清除的连接数（累计值）
+     */
+    private long evictedIdle;
+    /**
+     * 响应的传输字节数（压缩后，累计值）
+     */
+    private long responseWireBytes;
+    /**
+     * 响应的解码字节数（解压后，累计值），与responseWireBytes的比值即为压缩率
+     */
+    private long responseDecodedBytes;
+    /**
+     * 压缩了请求体的请求数（累计值）
+     */
+    private long compressedRequests;
+    /**
+     * 压缩的请求体的原始字节数（压缩前，累计值）
+     */
+    private long requestRawBytes;
+    /**
+     * 压缩的请求体的传输字节数（压缩后，累计值），与requestRawBytes的比值即为请求体的压缩率
+     */
+    private long requestWireBytes;
+    /**
+     * 响应缓存统计信息，未启用响应缓存时为null
+     */
+    private HttpCacheStats cache;
+    /**
+     * 各路由的统计信息
+     */
+    private List<HttpRouteStats> routes;
+}
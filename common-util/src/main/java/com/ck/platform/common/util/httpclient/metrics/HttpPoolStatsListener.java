@@ -0,0 +1,19 @@
+package com.ck.platform.common.util.httpclient.metrics;
+
+/**
+ * 连接池统计信息监听器，用于将统计信息推送到外部监控系统
+ * 注：由连接池监控线程定期回调（每10秒一次），实现中不应执行耗时操作
+ *
+ * @author chenck
+ * @date 2026/10/18 16:55
+ */
+@FunctionalInterface
+public interface HttpPoolStatsListener {
+
+    /**
+     * 连接池统计信息回调
+     *
+     * @param stats 统计信息
+     */
+    void onStats(HttpPoolStats stats);
+}
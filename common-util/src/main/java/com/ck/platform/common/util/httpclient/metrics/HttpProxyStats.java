@@ -0,0 +1,54 @@
+package com.ck.platform.common.util.httpclient.metrics;
+
+import lombok.Data;
+
+/**
+ * 代理池中单个代理的统计信息
+ *
+ * @author chenck
+ * @date 2026/10/18 20:30
+ */
+@Data
+public class HttpProxyStats {
+
+    /**
+     * 连接池名称
+     */
+    private String poolName;
+    /**
+     * 代理地址，如 10.0.0.1:3128
+     */
+    private String proxy;
+    /**
+     * 进行中的请求数
+     */
+    private int inFlight;
+    /**
+     * 请求总数
+     */
+    private long requests;
+    /**
+     * 失败总数
+     */
+    private long failures;
+    /**
+     * 成功率（指数加权移动平均，0~1）
+     */
+    private double successRate;
+    /**
+     * 耗时，单位毫秒（指数加权移动平均）
+     */
+    private double latencyMillis;
+    /**
+     * 当前选择权重
+     */
+    private double weight;
+    /**
+     * 是否已剔除
+     */
+    private boolean ejected;
+    /**
+     * 连续剔除次数
+     */
+    private int ejectCount;
+}
@@ -0,0 +1,38 @@
+package com.ck.platform.common.util.httpclient.metrics;
+
+import lombok.Data;
+
+/**
+ * HttpClient连接池中单个路由的统计信息
+ *
+ * @author chenck
+ * @date 2026/10/18 16:52
+ */
+@Data
+public class HttpRouteStats {
+
+    /**
+     * 路由，如 https://api.test.com:443
+     */
+    private String route;
+    /**
+     * 已租用（正在使用）的连接数
+     */
+    private int leased;
+    /**
+     * 空闲可用的连接数
+     */
+    private int available;
+    /**
+     * 等待获取连接的请求数
+     */
+    private int pending;
+    /**
+     * 最大连接数
+     */
+    private int max;
+    /**
+     * 从该路由获取连接的等待耗时（单位：微秒），路由数量超过上限时为null
+     */
+    private HttpHistogramSnapshot leaseWait;
+}
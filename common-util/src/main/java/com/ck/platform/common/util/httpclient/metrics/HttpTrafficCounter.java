@@ -0,0 +1,50 @@
+package com.ck.platform.common.util.httpclient.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HttpClient流量计数器：响应的传输字节数（压缩后）与解码字节数（解压后），以及压缩的请求数及其请求体的原始字节数与传输字节数<br>
+ * 注：只统计同步请求，异步请求（HttpAsyncClient）不压缩请求体，也不计入流量统计
+ *
+ * @author chenck
+ * @date 2026/10/18 21:18
+ */
+public class HttpTrafficCounter {
+
+    private final LongAdder responseWireBytes = new LongAdder();
+    private final LongAdder responseDecodedBytes = new LongAdder();
+    private final LongAdder compressedRequests = new LongAdder();
+    private final LongAdder requestRawBytes = new LongAdder();
+    private final LongAdder requestWireBytes = new LongAdder();
+
+    public LongAdder getResponseWireBytes() {
+        return responseWireBytes;
+    }
+
+    public LongAdder getResponseDecodedBytes() {
+        return responseDecodedBytes;
+    }
+
+    public LongAdder getRequestRawBytes() {
+        return requestRawBytes;
+    }
+
+    public LongAdder getRequestWireBytes() {
+        return requestWireBytes;
+    }
+
+    public void recordCompressedRequest() {
+        compressedRequests.increment();
+    }
+
+    /**
+     * 将统计值写入连接池统计信息
+     */
+    public void fill(HttpPoolStats stats) {
+        stats.setResponseWireBytes(responseWireBytes.sum());
+        stats.setResponseDecodedBytes(responseDecodedBytes.sum());
+        stats.setCompressedRequests(compressedRequests.sum());
+        stats.setRequestRawBytes(requestRawBytes.sum());
+        stats.setRequestWireBytes(requestWireBytes.sum());
+    }
+}
@@ -0,0 +1,42 @@
+package com.ck.platform.common.util.httpclient.metrics;
+
+import lombok.Data;
+
+/**
+ * HttpClient连接池单个路由的预热结果
+ *
+ * @author chenck
+ * @date 2026/10/18 19:10
+ */
+@Data
+public class HttpWarmUpStats {
+
+    /**
+     * 连接池名称
+     */
+    private String poolName;
+    /**
+     * 路由，如 https://api.test.com:443
+     */
+    private String route;
+    /**
+     * 计划建立的连接数（不超过该路由的最大连接数）
+     */
+    private int requested;
+    /**
+     * 已建立（含预热前已存在的空闲连接）的连接数
+     */
+    private int opened;
+    /**
+     * 建立失败的连接数
+     */
+    private int failed;
+    /**
+     * 预热请求（HEAD）的响应状态码，未发送或请求失败时为null
+     */
+    private Integer headStatusCode;
+    /**
+     * 预热耗时，单位毫秒
+     */
+    private long elapsedMillis;
+}
@@ -0,0 +1,221 @@
+package com.ck.platform.common.util.httpclient.resilience;
+
+import com.ck.platform.common.util.httpclient.metrics.HttpCircuitBreakerStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于调用次数滑动窗口的熔断器（含自适应并发限制）<br>
+ * 1.CLOSED：统计最近slidingWindowSize次调用的失败率和慢调用率，任一达到阈值时进入OPEN<br>
+ * 2.OPEN：直接拒绝调用，持续waitDurationInOpenState后进入HALF_OPEN<br>
+ * 3.HALF_OPEN：只允许permittedCallsInHalfOpenState次试探调用，试探调用全部完成后，失败率和慢调用率均低于阈值则进入CLOSED，否则重新进入OPEN<br>
+ * 注：失败指超时、网络异常、5xx及429响应，其余4xx响应属于调用方错误，不计为失败<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 19:40
+ */
+public class HttpCircuitBreaker {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(HttpCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final byte OUTCOME_FAILURE = 1;
+    private static final byte OUTCOME_SLOW = 2;
+
+    private final String name;
+    private final HttpCircuitBreakerConfig config;
+    private final HttpConcurrencyLimiter limiter;
+    private final LongAdder rejectedCalls = new LongAdder();
+    private final long slowCallNanos;
+
+    private volatile State state = State.CLOSED;
+    /**
+     * 最近一次获取调用许可的时间（精度1秒），用于清除闲置的熔断器
+     */
+    private volatile long lastAccessTime = System.currentTimeMillis();
+    private long openedAt;
+    /**
+     * 滑动窗口，每个元素记录一次调用的结果（失败、慢调用标识位）
+     */
+    private final byte[] window;
+    private int windowIndex;
+    private int bufferedCalls;
+    private int failureCalls;
+    private int slowCalls;
+    /**
+     * 半开状态下已放行、已完成的试探调用数
+     */
+    private int halfOpenPermitted;
+    private int halfOpenCompleted;
+
+    public HttpCircuitBreaker(String name, HttpCircuitBreakerConfig config) {
+        config.validate();
+        this.name = name;
+        this.config = config;
+        this.limiter = config.isConcurrencyLimitEnabled() ? new HttpConcurrencyLimiter(config) : null;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDuration());
+        this.window = new byte[config.getSlidingWindowSize()];
+    }
+
+    /**
+     * 尝试获取调用许可，获取成功后必须调用 {@link #onComplete(boolean, long)}
+     *
+     * @return 拒绝原因，null表示允许调用
+     */
+    public String tryAcquire() {
+        long now = System.currentTimeMillis();
+        if (now - lastAccessTime >= 1000) {
+            lastAccessTime = now;
+        }
+        if (null != limiter && !limiter.tryAcquire()) {
+            rejectedCalls.increment();
+            return "concurrency limit exceeded, name=" + name + ", limit=" + limiter.getLimit();
+        }
+        if (state != State.CLOSED && !tryAcquirePermission()) {
+            if (null != limiter) {
+                limiter.releaseWithoutSample();
+            }
+            rejectedCalls.increment();
+            return "circuit breaker is " + state + ", name=" + name;
+        }
+        return null;
+    }
+
+    private synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < TimeUnit.MILLISECONDS.toNanos(config.getWaitDurationInOpenState())) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermitted >= config.getPermittedCallsInHalfOpenState()) {
+                return false;
+            }
+            halfOpenPermitted++;
+        }
+        return true;
+    }
+
+    /**
+     * 记录调用结果
+     *
+     * @param failure      是否失败
+     * @param elapsedNanos 调用耗时，单位纳秒
+     */
+    public void onComplete(boolean failure, long elapsedNanos) {
+        boolean slow = elapsedNanos >= slowCallNanos;
+        if (null != limiter) {
+            limiter.release(failure || slow);
+        }
+        byte outcome = (byte) ((failure ? OUTCOME_FAILURE : 0) | (slow ? OUTCOME_SLOW : 0));
+        synchronized (this) {
+            if (state == State.OPEN) {
+                // 熔断前发出的调用，不再统计
+                return;
+            }
+            record(outcome);
+            if (state == State.HALF_OPEN) {
+                halfOpenCompleted++;
+                if (halfOpenCompleted >= config.getPermittedCallsInHalfOpenState()) {
+                    transitionTo(isThresholdExceeded() ? State.OPEN : State.CLOSED);
+                }
+            } else if (bufferedCalls >= config.getMinimumNumberOfCalls() && isThresholdExceeded()) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * 调用被取消（如对冲请求中较慢的一方），归还许可，不统计调用结果
+     */
+    public void onCancel() {
+        if (null != limiter) {
+            limiter.releaseWithoutSample();
+        }
+        synchronized (this) {
+            if (state == State.HALF_OPEN && halfOpenPermitted > halfOpenCompleted) {
+                halfOpenPermitted--;
+            }
+        }
+    }
+
+    private void record(byte outcome) {
+        if (bufferedCalls == window.length) {
+            byte evicted = window[windowIndex];
+            failureCalls -= evicted & OUTCOME_FAILURE;
+            slowCalls -= (evicted & OUTCOME_SLOW) >> 1;
+        } else {
+            bufferedCalls++;
+        }
+        window[windowIndex] = outcome;
+        failureCalls += outcome & OUTCOME_FAILURE;
+        slowCalls += (outcome & OUTCOME_SLOW) >> 1;
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private boolean isThresholdExceeded() {
+        return failureCalls * 100 >= config.getFailureRateThreshold() * bufferedCalls
+                || slowCalls * 100 >= config.getSlowCallRateThreshold() * bufferedCalls;
+    }
+
+    private void transitionTo(State newState) {
+        LOGGER.warn("[circuit breaker state change][name:{}][{}->{}][bufferedCalls:{}][failureCalls:{}][slowCalls:{}]",
+                name, state, newState, bufferedCalls, failureCalls, slowCalls);
+        state = newState;
+        // 状态变更时重置滑动窗口
+        windowIndex = 0;
+        bufferedCalls = 0;
+        failureCalls = 0;
+        slowCalls = 0;
+        halfOpenPermitted = 0;
+        halfOpenCompleted = 0;
+        if (newState == State.OPEN) {
+            openedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * 判断熔断器是否闲置：处于CLOSED状态、没有进行中的调用，且超过idleMillis毫秒未被使用
+     */
+    boolean isIdle(long now, long idleMillis) {
+        return state == State.CLOSED && now - lastAccessTime >= idleMillis
+                && (null == limiter || limiter.getInFlight() == 0);
+    }
+
+    /**
+     * 获取熔断器状态快照
+     */
+    public synchronized HttpCircuitBreakerStats getStats() {
+        HttpCircuitBreakerStats stats = new HttpCircuitBreakerStats();
+        stats.setName(name);
+        stats.setState(state.name());
+        stats.setBufferedCalls(bufferedCalls);
+        stats.setFailureRate(bufferedCalls == 0 ? 0F : failureCalls * 100F / bufferedCalls);
+        stats.setSlowCallRate(bufferedCalls == 0 ? 0F : slowCalls * 100F / bufferedCalls);
+        stats.setRejectedCalls(rejectedCalls.sum());
+        if (null != limiter) {
+            stats.setConcurrencyLimit(limiter.getLimit());
+            stats.setInFlight(limiter.getInFlight());
+        }
+        return stats;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public HttpCircuitBreakerConfig getConfig() {
+        return config;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ck.platform.common.util.httpclient.resilience;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * 熔断器及自适应并发限制配置<br>
+ * 支持链式调用<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 19:30
+ */
+@Data
+@Accessors(chain = true)
+@NoArgsConstructor(staticName = "of")
+public class HttpCircuitBreakerConfig {
+
+    /**
+     * 滑动窗口大小（最近N次调用）
+     */
+    private int slidingWindowSize = 100;
+    /**
+     * 计算失败率的最少调用次数，窗口内调用次数不足时不熔断
+     */
+    private int minimumNumberOfCalls = 20;
+    /**
+     * 失败率阈值（百分比），达到时熔断
+     */
+    private int failureRateThreshold = 50;
+    /**
+     * 慢调用率阈值（百分比），达到时熔断
+     */
+    private int slowCallRateThreshold = 80;
+    /**
+     * 慢调用耗时阈值，单位毫秒
+     */
+    private long slowCallDuration = 3000;
+    /**
+     * 熔断持续时间，到期后进入半开状态，单位毫秒
+     */
+    private long waitDurationInOpenState = 30 * 1000;
+    /**
+     * 半开状态下允许通过的试探调用次数
+     */
+    private int permittedCallsInHalfOpenState = 5;
+
+    /**
+     * 是否启用自适应并发限制（AIMD：成功时加性增加，失败或慢调用时乘性减少）
+     */
+    private boolean concurrencyLimitEnabled = true;
+    /**
+     * 初始并发限制
+     */
+    private int initialConcurrencyLimit = 20;
+    /**
+     * 最小并发限制
+     */
+    private int minConcurrencyLimit = 1;
+    /**
+     * 最大并发限制
+     */
+    private int maxConcurrencyLimit = 200;
+    /**
+     * 失败或慢调用时的并发限制缩减比例
+     */
+    private double backoffRatio = 0.9D;
+
+    /**
+     * 校验配置
+     */
+    public void validate() {
+        if (slidingWindowSize <= 0 || minimumNumberOfCalls <= 0 || permittedCallsInHalfOpenState <= 0) {
+            throw new IllegalArgumentException("slidingWindowSize, minimumNumberOfCalls and permittedCallsInHalfOpenState should be positive");
+        }
+        if (failureRateThreshold <= 0 || failureRateThreshold > 100 || slowCallRateThreshold <= 0 || slowCallRateThreshold > 100) {
+            throw new IllegalArgumentException("failureRateThreshold and slowCallRateThreshold should be in (0, 100]");
+        }
+        if (minConcurrencyLimit <= 0 || minConcurrencyLimit > initialConcurrencyLimit || initialConcurrencyLimit > maxConcurrencyLimit) {
+            throw new IllegalArgumentException("concurrency limit should satisfy 0 < min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio should be in (0, 1)");
+        }
+    }
+}
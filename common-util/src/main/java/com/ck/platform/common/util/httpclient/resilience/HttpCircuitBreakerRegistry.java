@@ -0,0 +1,177 @@
+package com.ck.platform.common.util.httpclient.resilience;
+
+import com.ck.platform.common.util.httpclient.HttpClientParam;
+import com.ck.platform.common.util.httpclient.metrics.HttpCircuitBreakerStats;
+import com.ck.platform.common.util.httpclient.HttpLibs;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 熔断器注册中心<br>
+ * 熔断器按名称隔离：优先使用HttpClientParam.apiName（如 HttpApiAnno.name），未设置时使用请求的主机地址（如 https://api.test.com）<br>
+ * 注：默认不启用熔断，通过 {@link #register(String, HttpCircuitBreakerConfig)} 为指定名称启用，
+ * 或通过 {@link #setDefaultConfig(HttpCircuitBreakerConfig)} 为所有请求启用<br>
+ * 注：熔断器数量达到上限（默认10000）后，按默认配置创建熔断器前先清除按默认配置创建的闲置（CLOSED、无进行中的调用且超过idleTimeout未使用）的熔断器，
+ * 仍超过上限时新的名称不启用熔断，避免请求地址不可控（如爬虫、大量合作方）时占用过多内存；单独注册的名称不受上限限制<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 19:50
+ */
+public class HttpCircuitBreakerRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpCircuitBreakerRegistry.class);
+
+    private static final ConcurrentHashMap<String, HttpCircuitBreakerConfig> CONFIG_MAP = new ConcurrentHashMap<String, HttpCircuitBreakerConfig>();
+    private static final ConcurrentHashMap<String, HttpCircuitBreaker> BREAKER_MAP = new ConcurrentHashMap<String, HttpCircuitBreaker>();
+    private static volatile HttpCircuitBreakerConfig defaultConfig;
+    private static volatile int maxBreakers = 10000;
+    private static volatile long idleTimeout = 10 * 60 * 1000;
+    /**
+     * 最近一次清除闲置熔断器的时间，每秒最多清除一次
+     */
+    private static final AtomicLong LAST_EVICT_TIME = new AtomicLong();
+
+    private HttpCircuitBreakerRegistry() {
+    }
+
+    /**
+     * 为指定名称启用熔断器（已存在时按新配置重建）
+     *
+     * @param name   apiName或主机地址（如 https://api.test.com）
+     * @param config 熔断器配置
+     */
+    public static void register(String name, HttpCircuitBreakerConfig config) {
+        if (StringUtils.isBlank(name)) {
+            throw new IllegalArgumentException("circuit breaker name should not be blank");
+        }
+        if (null == config) {
+            throw new IllegalArgumentException("HttpCircuitBreakerConfig should not be null");
+        }
+        config.validate();
+        CONFIG_MAP.put(name, config);
+        BREAKER_MAP.remove(name);
+    }
+
+    /**
+     * 设置默认配置，为未单独注册的请求启用熔断器，为null时不启用
+     */
+    public static void setDefaultConfig(HttpCircuitBreakerConfig config) {
+        if (null != config) {
+            config.validate();
+        }
+        defaultConfig = config;
+    }
+
+    /**
+     * 获取请求对应的熔断器
+     *
+     * @return 未启用熔断时返回null
+     */
+    public static HttpCircuitBreaker getCircuitBreaker(HttpClientParam reqParam) {
+        if (null == defaultConfig && CONFIG_MAP.isEmpty()) {
+            return null;
+        }
+        String name = resolveName(reqParam);
+        if (null == name) {
+            return null;
+        }
+        HttpCircuitBreaker breaker = BREAKER_MAP.get(name);
+        if (null != breaker) {
+            return breaker;
+        }
+        HttpCircuitBreakerConfig config = CONFIG_MAP.get(name);
+        if (null == config) {
+            config = defaultConfig;
+            if (null == config || !ensureCapacity()) {
+                return null;
+            }
+        }
+        final HttpCircuitBreakerConfig breakerConfig = config;
+        return BREAKER_MAP.computeIfAbsent(name, key -> new HttpCircuitBreaker(key, breakerConfig));
+    }
+
+    /**
+     * 设置熔断器数量上限（超过时不再按默认配置创建熔断器），默认10000
+     */
+    public static void setMaxBreakers(int maxBreakers) {
+        if (maxBreakers <= 0) {
+            throw new IllegalArgumentException("maxBreakers should be greater than 0");
+        }
+        HttpCircuitBreakerRegistry.maxBreakers = maxBreakers;
+    }
+
+    /**
+     * 设置闲置熔断器的清除时长，单位毫秒，默认10分钟
+     */
+    public static void setIdleTimeout(long idleTimeout) {
+        if (idleTimeout <= 0) {
+            throw new IllegalArgumentException("idleTimeout should be greater than 0");
+        }
+        HttpCircuitBreakerRegistry.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * 熔断器数量达到上限时清除闲置的熔断器
+     *
+     * @return false表示清除后仍达到上限
+     */
+    private static boolean ensureCapacity() {
+        if (BREAKER_MAP.size() < maxBreakers) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        long lastEvictTime = LAST_EVICT_TIME.get();
+        if (now - lastEvictTime >= 1000 && LAST_EVICT_TIME.compareAndSet(lastEvictTime, now)) {
+            int evicted = 0;
+            for (Map.Entry<String, HttpCircuitBreaker> entry : BREAKER_MAP.entrySet()) {
+                if (!CONFIG_MAP.containsKey(entry.getKey()) && entry.getValue().isIdle(now, idleTimeout)
+                        && BREAKER_MAP.remove(entry.getKey(), entry.getValue())) {
+                    evicted++;
+                }
+            }
+            if (BREAKER_MAP.size() >= maxBreakers) {
+                LOGGER.warn("[HttpCircuitBreakerRegistry] circuit breaker count reached the limit " + maxBreakers
+                        + ", evicted " + evicted + " idle breakers, new names will not be guarded");
+            }
+        }
+        return BREAKER_MAP.size() < maxBreakers;
+    }
+
+    /**
+     * 获取指定熔断器的统计信息
+     *
+     * @return 熔断器不存在时返回null
+     */
+    public static HttpCircuitBreakerStats getStats(String name) {
+        HttpCircuitBreaker breaker = BREAKER_MAP.get(name);
+        return null == breaker ? null : breaker.getStats();
+    }
+
+    /**
+     * 获取所有熔断器的统计信息
+     */
+    public static List<HttpCircuitBreakerStats> getStats() {
+        List<HttpCircuitBreakerStats> statsList = new ArrayList<HttpCircuitBreakerStats>(BREAKER_MAP.size());
+        for (HttpCircuitBreaker breaker : BREAKER_MAP.values()) {
+            statsList.add(breaker.getStats());
+        }
+        return statsList;
+    }
+
+    /**
+     * 熔断器名称：优先使用apiName，否则使用请求的主机地址
+     */
+    static String resolveName(HttpClientParam reqParam) {
+        if (StringUtils.isNotBlank(reqParam.getApiName())) {
+            return reqParam.getApiName();
+        }
+        return HttpLibs.getHost(reqParam.getRequesturi());
+    }
+}
@@ -0,0 +1,77 @@
+package com.ck.platform.common.util.httpclient.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 自适应并发限制（AIMD）<br>
+ * 1.调用成功且并发已接近限制时，限制值加性增加（每次增加1/limit，约每轮满并发调用增加1）<br>
+ * 2.调用失败或慢调用时，限制值乘性减少（乘以backoffRatio）<br>
+ * 3.进行中的调用数达到限制时，新调用直接拒绝，不排队<br>
+ *
+ * @author chenck
+ * @date 2026/10/18 19:35
+ */
+public class HttpConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    public HttpConcurrencyLimiter(HttpCircuitBreakerConfig config) {
+        this.minLimit = config.getMinConcurrencyLimit();
+        this.maxLimit = config.getMaxConcurrencyLimit();
+        this.backoffRatio = config.getBackoffRatio();
+        this.limit = config.getInitialConcurrencyLimit();
+    }
+
+    /**
+     * 尝试获取调用许可
+     *
+     * @return false表示已达到并发限制
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还调用许可，并根据调用结果调整并发限制
+     *
+     * @param dropped true表示调用失败或慢调用
+     */
+    public void release(boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (dropped) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (current * 2 >= limit) {
+                // 只有并发被充分使用时才增加限制，避免低负载时限制值无限增长
+                limit = Math.min(maxLimit, limit + 1D / limit);
+            }
+        }
+    }
+
+    /**
+     * 归还调用许可，不调整并发限制（如调用未真正发出）
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
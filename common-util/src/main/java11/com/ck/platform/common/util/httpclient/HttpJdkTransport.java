@@ -0,0 +1,203 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpVersion;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.DeflateDecompressingEntity;
+import org.apache.http.client.entity.GzipDecompressingEntity;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 基于JDK 11+ java.net.http.HttpClient的传输层，优先使用HTTP/2（同一合作方的并发请求多路复用一个TCP连接），对方不支持时自动使用HTTP/1.1<br>
+ * 1.响应转换为HttpClient 4.x的HttpResponse交给ResponseHandler处理，响应内容以流的方式读取，gzip/deflate响应自动解压<br>
+ * 2.connectTimeout在创建HttpClient时按连接池的defaultRequestConfig设置，socketTimeout作为请求超时时间（等待响应头的时间）<br>
+ * 注：java.net.http.HttpClient不支持按请求设置代理和Cookie，设置了代理或cookieStore的请求通过apache传输层发送<br>
+ * 注：请求体压缩、响应缓存、连接池统计等基于Apache HttpClient拦截器的功能不作用于该传输层
+ *
+ * @author chenck
+ * @date 2026/10/18 23:55
+ */
+class HttpJdkTransport implements HttpTransport {
+
+    /**
+     * java.net.http.HttpClient不允许设置的请求头
+     */
+    private static final Set<String> RESTRICTED_HEADERS = new HashSet<String>(Arrays.asList(
+            "connection", "content-length", "expect", "host", "upgrade"));
+    private static final ProtocolVersion HTTP_2 = new ProtocolVersion("HTTP", 2, 0);
+
+    private final HttpClientPoolConfig config;
+    private final HttpTransport fallback;
+    private final HttpClient httpClient;
+
+    HttpJdkTransport(HttpClientPoolConfig config, HttpTransport fallback) {
+        this.config = config;
+        this.fallback = fallback;
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        RequestConfig defaultRequestConfig = config.getDefaultRequestConfig();
+        if (null != defaultRequestConfig && defaultRequestConfig.getConnectTimeout() > 0) {
+            builder.connectTimeout(Duration.ofMillis(defaultRequestConfig.getConnectTimeout()));
+        }
+        this.httpClient = builder.build();
+    }
+
+    @Override
+    public String getName() {
+        return JDK;
+    }
+
+    @Override
+    public <T> T execute(HttpClientParam reqParam, RequestConfig reqConfig, ResponseHandler<T> responseHandler) throws IOException {
+        if (null != reqConfig.getProxy() || null != reqParam.getCookieStore()
+                || null != reqParam.getCredentialsProvider() || null != reqParam.getAuthCache()) {
+            return fallback.execute(reqParam, reqConfig, responseHandler);
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(reqParam.getRequesturi().trim()));
+        if (reqConfig.getSocketTimeout() > 0) {
+            builder.timeout(Duration.ofMillis(reqConfig.getSocketTimeout()));
+        }
+        List<Header> headers = reqParam.getHeaders();
+        if (null != headers) {
+            for (Header header : headers) {
+                if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                    builder.header(header.getName(), header.getValue());
+                }
+            }
+        }
+        if (config.isContentCompressionEnabled()) {
+            builder.setHeader("Accept-Encoding", "gzip,deflate");
+        }
+
+        HttpEntity entity = reqParam.getEntity();
+        if (HttpMethod.POST.name().equals(reqParam.getMethod()) && null != entity) {
+            if (null != entity.getContentType()) {
+                builder.setHeader("Content-Type", entity.getContentType().getValue());
+            }
+            if (null != entity.getContentEncoding()) {
+                builder.setHeader("Content-Encoding", entity.getContentEncoding().getValue());
+            }
+            builder.method(reqParam.getMethod(), bodyPublisher(entity));
+        } else {
+            builder.method(reqParam.getMethod(), HttpRequest.BodyPublishers.noBody());
+        }
+
+        HttpResponse<InputStream> response;
+        CompletableFuture<HttpResponse<InputStream>> responseFuture = httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        // 对冲请求中另一个请求先返回时，结束等待（JDK 16+同时中止底层的stream）
+        HttpHedging.registerAbort(() -> responseFuture.cancel(true));
+        try {
+            response = responseFuture.get();
+        } catch (ExecutionException e) {
+            throw toIOException(e.getCause());
+        } catch (CancellationException e) {
+            throw new InterruptedIOException("request aborted");
+        } catch (InterruptedException e) {
+            responseFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+
+        BasicHttpResponse httpResponse = toHttpResponse(response);
+        try {
+            return responseHandler.handleResponse(httpResponse);
+        } finally {
+            // 关闭响应流（未读完时中止该stream，HTTP/2下不影响同一连接上的其他请求）
+            EntityUtils.consumeQuietly(httpResponse.getEntity());
+            response.body().close();
+        }
+    }
+
+    /**
+     * 转换为与apache传输层一致的异常（超时异常转换为ConnectTimeoutException、SocketTimeoutException）
+     */
+    private static IOException toIOException(Throwable cause) {
+        if (cause instanceof HttpConnectTimeoutException) {
+            return new ConnectTimeoutException(cause.getMessage());
+        }
+        if (cause instanceof HttpTimeoutException) {
+            return new SocketTimeoutException(cause.getMessage());
+        }
+        if (cause instanceof UncheckedIOException) {
+            return ((UncheckedIOException) cause).getCause();
+        }
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        return new IOException(cause);
+    }
+
+    private static HttpRequest.BodyPublisher bodyPublisher(HttpEntity entity) {
+        HttpRequest.BodyPublisher publisher = HttpRequest.BodyPublishers.ofInputStream(() -> {
+            try {
+                return entity.getContent();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        long contentLength = entity.getContentLength();
+        return contentLength >= 0 ? HttpRequest.BodyPublishers.fromPublisher(publisher, contentLength) : publisher;
+    }
+
+    private static BasicHttpResponse toHttpResponse(HttpResponse<InputStream> response) {
+        int statusCode = response.statusCode();
+        ProtocolVersion version = response.version() == HttpClient.Version.HTTP_2 ? HTTP_2 : HttpVersion.HTTP_1_1;
+        BasicHttpResponse httpResponse = new BasicHttpResponse(new BasicStatusLine(version, statusCode,
+                EnglishReasonPhraseCatalog.INSTANCE.getReason(statusCode, Locale.ENGLISH)));
+        for (Map.Entry<String, List<String>> entry : response.headers().map().entrySet()) {
+            if (entry.getKey().startsWith(":")) {
+                continue;
+            }
+            for (String value : entry.getValue()) {
+                httpResponse.addHeader(entry.getKey(), value);
+            }
+        }
+
+        long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1L);
+        InputStreamEntity streamEntity = new InputStreamEntity(response.body(), contentLength);
+        response.headers().firstValue("Content-Type").ifPresent(streamEntity::setContentType);
+        String contentEncoding = response.headers().firstValue("Content-Encoding").orElse(null);
+        HttpEntity responseEntity = streamEntity;
+        if ("gzip".equalsIgnoreCase(contentEncoding) || "x-gzip".equalsIgnoreCase(contentEncoding)) {
+            responseEntity = new GzipDecompressingEntity(streamEntity);
+        } else if ("deflate".equalsIgnoreCase(contentEncoding)) {
+            responseEntity = new DeflateDecompressingEntity(streamEntity);
+        } else if (null != contentEncoding) {
+            streamEntity.setContentEncoding(contentEncoding);
+        }
+        httpResponse.setEntity(responseEntity);
+        return httpResponse;
+    }
+}
@@ -0,0 +1,116 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * HttpQueryEncoder与URLEncoder的一致性
+ *
+ * @author chenck
+ * @date 2026/10/18 19:55
+ */
+public class HttpQueryEncoderTest {
+
+    private static final Charset GBK = Charset.forName("GBK");
+
+    @Test
+    public void testParityWithUrlEncoder() throws Exception {
+        String[] samples = {
+                "", "abcXYZ019", ".-*_", " ", "a b+c", "~!@#$%^&()=[]{}|\\;:'\",<>/?`",
+                "中文参数", "张 三&x=1", "emoji😀end", "éß€", "tab\tnew\nline",
+        };
+        for (String sample : samples) {
+            assertParity(sample, StandardCharsets.UTF_8);
+            assertParity(sample, GBK);
+        }
+    }
+
+    /**
+     * 随机字符串（含ASCII符号、中文、代理对）与URLEncoder逐一比较
+     */
+    @Test
+    public void testRandomParityWithUrlEncoder() throws Exception {
+        Random random = new Random(20261018L);
+        for (int n = 0; n < 2000; n++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(20);
+            for (int i = 0; i < len; i++) {
+                int type = random.nextInt(4);
+                if (type == 0) {
+                    sb.append((char) (0x20 + random.nextInt(0x5F)));
+                } else if (type == 1) {
+                    sb.append((char) (0x4E00 + random.nextInt(0x5000)));
+                } else if (type == 2) {
+                    sb.appendCodePoint(0x1F600 + random.nextInt(0x50));
+                } else {
+                    sb.append((char) (0x80 + random.nextInt(0x780)));
+                }
+            }
+            assertParity(sb.toString(), StandardCharsets.UTF_8);
+            assertParity(sb.toString(), GBK);
+        }
+    }
+
+    /**
+     * 不成对的代理字符与URLEncoder一致编码为?（%3F）
+     */
+    @Test
+    public void testUnpairedSurrogate() throws Exception {
+        assertParity("a\uD83Db", StandardCharsets.UTF_8);
+        assertParity("a\uDE00", StandardCharsets.UTF_8);
+        Assert.assertEquals("a%3Fb", HttpQueryEncoder.appendEncoded(new StringBuilder(), "a\uD83Db", StandardCharsets.UTF_8).toString());
+    }
+
+    /**
+     * 过滤值为null或空白的参数，值去除首尾空白后编码，key不编码，按Map迭代顺序输出
+     */
+    @Test
+    public void testEncodeParams() {
+        Map<String, Object> params = new TreeMap<String, Object>();
+        params.put("b", " 张 三 ");
+        params.put("a", 1);
+        params.put("c", null);
+        params.put("d", "  ");
+        params.put("e k", "x&y=z");
+        Assert.assertEquals("a=1&b=%E5%BC%A0+%E4%B8%89&e k=x%26y%3Dz", HttpQueryEncoder.encode(params, null, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 按keyList的顺序输出，keyList中不存在的参数被过滤
+     */
+    @Test
+    public void testEncodeParamsWithKeyList() {
+        Map<String, Object> params = new LinkedHashMap<String, Object>();
+        params.put("a", "1");
+        params.put("b", "2");
+        params.put("c", "3");
+        Assert.assertEquals("c=3&a=1", HttpQueryEncoder.encode(params, Arrays.asList("c", "x", "a"), StandardCharsets.UTF_8));
+        Assert.assertNull(HttpQueryEncoder.encode(new LinkedHashMap<String, Object>(), null, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 与HttpLibs.buildParamsLink一致
+     */
+    @Test
+    public void testBuildParamsLink() {
+        Map<String, Object> params = new LinkedHashMap<String, Object>();
+        params.put("appid", "wx 1");
+        params.put("sign", "a+b/c=");
+        Assert.assertEquals("appid=wx+1&sign=a%2Bb%2Fc%3D", HttpLibs.buildParamsLink(params, null));
+    }
+
+    private static void assertParity(String str, Charset charset) throws Exception {
+        String expected = URLEncoder.encode(str, charset.name());
+        String actual = HttpQueryEncoder.appendEncoded(new StringBuilder(), str, charset).toString();
+        Assert.assertEquals(charset + ": " + str, expected, actual);
+    }
+}
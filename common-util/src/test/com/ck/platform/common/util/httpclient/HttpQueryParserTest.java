@@ -0,0 +1,181 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.apache.http.NameValuePair;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * HttpQueryParser与URLDecoder（及原split实现）的一致性及差异
+ *
+ * @author chenck
+ * @date 2026/10/18 20:00
+ */
+public class HttpQueryParserTest {
+
+    private static final Charset GBK = Charset.forName("GBK");
+
+    @Test
+    public void testDecodeParityWithUrlDecoder() throws Exception {
+        String[] samples = {
+                "", "abc", "a+b", "%41%42c", "%e5%bc%a0+%E4%B8%89", "100%25", "a%2Bb%2Fc%3D", "%F0%9F%98%80",
+        };
+        for (String sample : samples) {
+            assertDecodeParity(sample, StandardCharsets.UTF_8);
+        }
+        assertDecodeParity("%D5%C5+%C8%FD", GBK);
+    }
+
+    /**
+     * 随机字符串经URLEncoder编码后解码，与URLDecoder逐一比较
+     */
+    @Test
+    public void testRandomDecodeParity() throws Exception {
+        Random random = new Random(20261018L);
+        for (int n = 0; n < 2000; n++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(20);
+            for (int i = 0; i < len; i++) {
+                int type = random.nextInt(3);
+                if (type == 0) {
+                    sb.append((char) (0x20 + random.nextInt(0x5F)));
+                } else if (type == 1) {
+                    sb.append((char) (0x4E00 + random.nextInt(0x5000)));
+                } else {
+                    sb.appendCodePoint(0x1F600 + random.nextInt(0x50));
+                }
+            }
+            for (Charset charset : new Charset[]{StandardCharsets.UTF_8, GBK}) {
+                String encoded = URLEncoder.encode(sb.toString(), charset.name());
+                assertDecodeParity(encoded, charset);
+                // 未编码的+与%XX混合
+                assertDecodeParity(encoded.replace("%20", "+"), charset);
+            }
+        }
+    }
+
+    /**
+     * 不完整的转义与URLDecoder一致抛出IllegalArgumentException
+     */
+    @Test
+    public void testIncompleteEscapeRejected() {
+        for (String s : new String[]{"%", "%4", "a%4", "%G1", "%1G"}) {
+            assertRejected(s);
+            try {
+                URLDecoder.decode(s, "UTF-8");
+                Assert.fail("URLDecoder should reject " + s);
+            } catch (IllegalArgumentException expected) {
+                // 与HttpQueryParser一致
+            } catch (Exception e) {
+                Assert.fail(e.toString());
+            }
+        }
+    }
+
+    /**
+     * 差异：带符号的转义（如%+9）被拒绝，URLDecoder按Integer.parseInt解析为有效字节
+     */
+    @Test
+    public void testSignedEscapeRejected() throws Exception {
+        Assert.assertEquals("\t", URLDecoder.decode("%+9", "UTF-8"));
+        assertRejected("%+9");
+        assertRejected("%-1");
+    }
+
+    /**
+     * 与原split实现（HttpLibs.getUrlParamToMap）一致：参数名不解码，无=号时值为空字符串，同名参数后者覆盖前者，值中的=保留
+     */
+    @Test
+    public void testParseToMapParityWithSplit() throws Exception {
+        String[] queries = {
+                "a=1&b=2", "a=1&a=2", "a&b=", "a==b=c", "k%20=v%20+1", "sign=a%2Bb%2Fc%3D&appid=wx", "a=%E5%BC%A0+%E4%B8%89",
+        };
+        for (String query : queries) {
+            Assert.assertEquals(query, splitToMap(query), HttpQueryParser.parseToMap(query, StandardCharsets.UTF_8));
+            Assert.assertEquals(query, splitToMap(query), HttpLibs.getUrlParamToMap(query));
+        }
+    }
+
+    /**
+     * 差异：空参数（如 a=1&amp;&amp;b=2 中间的空串、首尾的&amp;）被忽略，原split实现会生成key为空串的参数
+     */
+    @Test
+    public void testEmptySegmentsSkipped() throws Exception {
+        String query = "&a=1&&b=2&";
+        Map<String, String> legacy = splitToMap(query);
+        Assert.assertTrue(legacy.containsKey(""));
+
+        Map<String, String> map = HttpQueryParser.parseToMap(query, StandardCharsets.UTF_8);
+        Assert.assertEquals(2, map.size());
+        Assert.assertFalse(map.containsKey(""));
+        Assert.assertEquals("1", map.get("a"));
+        Assert.assertEquals("2", map.get("b"));
+        Assert.assertEquals(2, HttpQueryParser.parseToList(query).size());
+    }
+
+    /**
+     * parseToList的值不解码（与HttpLibs.getParamsList一致）
+     */
+    @Test
+    public void testParseToListRawValues() {
+        List<NameValuePair> list = HttpQueryParser.parseToList("a=%E5%BC%A0+1&b&c==");
+        Assert.assertEquals(3, list.size());
+        Assert.assertEquals("a", list.get(0).getName());
+        Assert.assertEquals("%E5%BC%A0+1", list.get(0).getValue());
+        Assert.assertEquals("", list.get(1).getValue());
+        Assert.assertEquals("=", list.get(2).getValue());
+    }
+
+    /**
+     * Visitor逐个消费参数，返回false时停止解析
+     */
+    @Test
+    public void testVisitor() {
+        final StringBuilder sb = new StringBuilder();
+        final int[] count = new int[1];
+        HttpQueryParser.parse("appid=wx&sign=abc&timestamp=1", param -> {
+            count[0]++;
+            if (param.nameEquals("sign")) {
+                param.appendRawValue(sb);
+                return false;
+            }
+            return true;
+        });
+        Assert.assertEquals("abc", sb.toString());
+        Assert.assertEquals(2, count[0]);
+    }
+
+    private static void assertDecodeParity(String s, Charset charset) throws Exception {
+        Assert.assertEquals(charset + ": " + s, URLDecoder.decode(s, charset.name()), HttpQueryParser.decode(s, 0, s.length(), charset));
+    }
+
+    private static void assertRejected(String s) {
+        try {
+            HttpQueryParser.parseToMap("a=" + s, StandardCharsets.UTF_8);
+            Assert.fail("should reject " + s);
+        } catch (IllegalArgumentException expected) {
+            // 转义不合法
+        }
+    }
+
+    /**
+     * 原HttpLibs.getUrlParamToMap的split实现
+     */
+    private static Map<String, String> splitToMap(String query) throws Exception {
+        Map<String, String> map = new HashMap<String, String>(16);
+        for (String param : query.split("&")) {
+            String[] values = param.split("=", 2);
+            String value = values.length == 2 ? values[1] : "";
+            map.put(values[0], URLDecoder.decode(value, "UTF-8"));
+        }
+        return map;
+    }
+}
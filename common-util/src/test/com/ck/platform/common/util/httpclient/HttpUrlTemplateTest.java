@@ -0,0 +1,129 @@
+package com.ck.platform.common.util.httpclient;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HttpUrlTemplate与MessageFormat的一致性及差异
+ *
+ * @author chenck
+ * @date 2026/10/18 19:50
+ */
+public class HttpUrlTemplateTest {
+
+    /**
+     * 值无需编码时，渲染结果与MessageFormat一致
+     */
+    @Test
+    public void testParityWithMessageFormat() {
+        String[] patterns = {
+                "https://test.com/page?appid={0}&code={1}",
+                "https://test.com/user/{0}/order/{1}",
+                "https://test.com/user/{1}/page?appid={0}&code={1}#{0}",
+                "{0}/user/{1}",
+                "/api/{0}?v={1}",
+                "https://test.com/page",
+                "https://test.com/page?a={0}&b={2}",
+        };
+        List<Object> values = Arrays.<Object>asList("u-1_a.b~c", "A9z");
+        for (String pattern : patterns) {
+            Assert.assertEquals(pattern, MessageFormat.format(pattern, values.toArray()), HttpUrlTemplate.compile(pattern).render(values));
+        }
+    }
+
+    /**
+     * 兼容 {0,number,#} 写法，与MessageFormat结果一致
+     */
+    @Test
+    public void testNumberFormatStyle() {
+        String pattern = "https://test.com/user/{0,number,#}?page={1,number,#}";
+        List<Object> values = Arrays.<Object>asList(1234567L, 2);
+        Assert.assertEquals(MessageFormat.format(pattern, values.toArray()), HttpUrlTemplate.compile(pattern).render(values));
+    }
+
+    /**
+     * 差异：数字按String.valueOf渲染，不按Locale添加分组分隔符
+     */
+    @Test
+    public void testNumberNotLocaleFormatted() {
+        String pattern = "https://test.com/user/{0}";
+        List<Object> values = Collections.<Object>singletonList(1234567);
+        Assert.assertEquals("https://test.com/user/1,234,567", new MessageFormat(pattern, java.util.Locale.US).format(values.toArray()));
+        Assert.assertEquals("https://test.com/user/1234567", HttpUrlTemplate.compile(pattern).render(values));
+    }
+
+    /**
+     * 差异：单引号不作为MessageFormat的转义字符，引号内的占位符照常渲染，引号原样保留
+     */
+    @Test
+    public void testQuotesAreLiteral() {
+        String pattern = "https://test.com/page?q='{0}'&name=it''s";
+        List<Object> values = Collections.<Object>singletonList("x");
+        Assert.assertEquals("https://test.com/page?q={0}&name=it's", MessageFormat.format(pattern, values.toArray()));
+        Assert.assertEquals("https://test.com/page?q='x'&name=it''s", HttpUrlTemplate.compile(pattern).render(values));
+    }
+
+    /**
+     * 缺少值的占位符原样保留，null渲染为空字符串
+     */
+    @Test
+    public void testMissingAndNullValues() {
+        String pattern = "https://test.com/page?a={0}&b={1}&c={2}";
+        List<Object> values = Arrays.<Object>asList("1", null);
+        Assert.assertEquals("https://test.com/page?a=1&b=&c={2}", HttpUrlTemplate.compile(pattern).render(values));
+        Assert.assertEquals("https://test.com/page?a={0}", HttpUrlTemplate.compile("https://test.com/page?a={0}").render((List<?>) null));
+    }
+
+    /**
+     * 占位符的值按所在的URI组成部分编码：主机部分不编码，路径按路径段编码，查询串按参数值编码
+     */
+    @Test
+    public void testComponentEncoding() {
+        String pattern = "{0}/user/{1}?name={2}&next={3}#{4}";
+        List<Object> values = Arrays.<Object>asList("https://test.com", "a/b c+d", "张 三&x=1", "/p?q=1#f", "s t");
+        Assert.assertEquals("https://test.com/user/a%2Fb%20c+d?name=%E5%BC%A0%20%E4%B8%89%26x%3D1&next=/p?q%3D1%23f#s%20t",
+                HttpUrlTemplate.compile(pattern).render(values));
+        Assert.assertEquals("https://test.com/user/a%2Fb%20c+d?name=%D5%C5%20%C8%FD%26x%3D1&next=/p?q%3D1%23f#s%20t",
+                HttpUrlTemplate.compile(pattern).render(values, Charset.forName("GBK")));
+    }
+
+    /**
+     * 命名占位符按名称取值，下标占位符按 "0"、"1" 取值
+     */
+    @Test
+    public void testNamedPlaceholders() {
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("appid", "wx 1");
+        values.put("0", 42);
+        HttpUrlTemplate template = HttpUrlTemplate.compile("https://test.com/user/{0}/page?appid={appid}&code={code}");
+        Assert.assertEquals(3, template.getPlaceholderCount());
+        Assert.assertEquals("https://test.com/user/42/page?appid=wx%201&code={code}", template.render(values));
+    }
+
+    /**
+     * 不合法的占位符按字面量处理
+     */
+    @Test
+    public void testInvalidPlaceholderIsLiteral() {
+        String pattern = "https://test.com/page?json={\"a\":1}&b={ }&c={0}";
+        Assert.assertEquals("https://test.com/page?json={\"a\":1}&b={ }&c=1",
+                HttpUrlTemplate.compile(pattern).render(Collections.<Object>singletonList(1)));
+    }
+
+    /**
+     * 模板按字符串缓存
+     */
+    @Test
+    public void testCompileCached() {
+        String pattern = "https://test.com/cache/{0}";
+        Assert.assertSame(HttpUrlTemplate.compile(pattern), HttpUrlTemplate.compile(pattern));
+    }
+}